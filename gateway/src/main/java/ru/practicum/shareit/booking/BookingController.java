@@ -5,6 +5,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 
@@ -24,14 +25,14 @@ public class BookingController {
 
 
     @PostMapping
-    public ResponseEntity<Object> create(@RequestBody @Valid BookingShortDto bookingDto,
+    public Mono<ResponseEntity<Object>> create(@RequestBody @Valid BookingShortDto bookingDto,
                                  @RequestHeader(header) Long userId) {
         log.info("Добавление отзыва от пользователя с id = {}", userId);
         return bookingClient.create(userId, bookingDto);
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> updateBooking(@PathVariable Long bookingId,
+    public Mono<ResponseEntity<Object>> updateBooking(@PathVariable Long bookingId,
                                          @RequestHeader(header) Long userId,
                                          @RequestParam Boolean approved) {
         log.info("Обновление статуса бронирования id " + bookingId + ", пользователем id: " + userId);
@@ -39,32 +40,34 @@ public class BookingController {
     }
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getById(@RequestHeader(header) Long userId,
+    public Mono<ResponseEntity<Object>> getById(@RequestHeader(header) Long userId,
                                    @PathVariable Long bookingId) {
         log.info("Получаем информацию о бронировании: {}", bookingId);
         return bookingClient.getById(userId, bookingId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllByUser(@RequestHeader(header) Long userId,
+    public Mono<ResponseEntity<Object>> getAllByUser(@RequestHeader(header) Long userId,
                                               @RequestParam(name = "state",
                                                       required = false,
                                                       defaultValue = "ALL") BookingState state,
                                               @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                              @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+                                              @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                              @RequestParam(name = "after", required = false) String after) {
         log.info("Получаем все бронирования текущего пользователяс id = {}", userId);
-        return bookingClient.getAllByUser(userId, state, from, size);
+        return bookingClient.getAllByUser(userId, state, from, size, after);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getAllByOwner(@RequestHeader(header) Long userId,
+    public Mono<ResponseEntity<Object>> getAllByOwner(@RequestHeader(header) Long userId,
                                                @RequestParam(name = "state",
                                                        required = false,
                                                        defaultValue = "ALL") BookingState state,
                                                @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                               @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+                                               @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                               @RequestParam(name = "after", required = false) String after) {
         log.info("Получаем все бронирования текущего владельца id = {}", userId);
-        return bookingClient.getAllByOwner(userId, state, from, size);
+        return bookingClient.getAllByOwner(userId, state, from, size, after);
     }
 }
 
@@ -1,124 +1,211 @@
 package ru.practicum.shareit.client;
 
-import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
 
 public class BaseClient {
-    protected final RestTemplate rest;
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of(HttpHeaders.CONNECTION, "keep-alive",
+            HttpHeaders.PROXY_AUTHENTICATE, HttpHeaders.PROXY_AUTHORIZATION, HttpHeaders.TE, HttpHeaders.TRAILER,
+            HttpHeaders.TRANSFER_ENCODING, HttpHeaders.UPGRADE, HttpHeaders.CONTENT_LENGTH).stream()
+            .map(name -> name.toLowerCase(Locale.ROOT))
+            .collect(Collectors.toUnmodifiableSet());
 
-    public BaseClient(RestTemplate rest) {
-        this.rest = rest;
+    private static final DefaultUriBuilderFactory TARGETS = new DefaultUriBuilderFactory();
+
+    protected final WebClient client;
+    private final String prefix;
+    private final GatewayResponseCache responseCache;
+    private final ConcurrentMap<String, Flight> inFlight = new ConcurrentHashMap<>();
+
+    public BaseClient(WebClient client, String prefix, GatewayResponseCache responseCache) {
+        this.client = client;
+        this.prefix = prefix;
+        this.responseCache = responseCache;
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected Mono<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, Map<String, Object> parameters) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId, Map<String, Object> parameters) {
         return patch(path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Mono<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
-
-        ResponseEntity<Object> shareitServerResponse;
-        try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+    protected static String withCursor(String path, Map<String, Object> parameters, @Nullable String after) {
+        if (after == null) {
+            return path;
+        }
+        parameters.put("after", after);
+        return path + "&after={after}";
+    }
+
+    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        Map<String, Object> uriVariables = parameters != null ? parameters : Map.of();
+        String target = TARGETS.expand(prefix + path, uriVariables).toString();
+        if (method == HttpMethod.GET) {
+            GatewayResponseCache.Lookup lookup = responseCache.lookup(target, userId);
+            Mono<ResponseEntity<Object>> call = send(method, path, userId, uriVariables, body);
+            if (lookup != null) {
+                ResponseEntity<Object> cached = responseCache.get(lookup);
+                if (cached != null) {
+                    return Mono.just(cached);
+                }
+                call = call.doOnNext(response -> responseCache.put(lookup, response));
             }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            return coalesce(sharedAcrossUsers(target) ? target : target + "|" + userId, lookup, call);
+        }
+        return send(method, path, userId, uriVariables, body)
+                .doOnNext(response -> responseCache.invalidate(method, target, response))
+                .doOnError(error -> responseCache.invalidate(method, target, null))
+                .doOnCancel(() -> responseCache.invalidate(method, target, null));
+    }
+
+    protected boolean sharedAcrossUsers(String target) {
+        return false;
+    }
+
+    private Mono<ResponseEntity<Object>> coalesce(String key, @Nullable GatewayResponseCache.Lookup lookup,
+                                                  Mono<ResponseEntity<Object>> call) {
+        return Mono.defer(() -> {
+            Flight flight = new Flight(lookup, responseCache.epoch());
+            flight.response = call
+                    .doFinally(signal -> inFlight.remove(key, flight))
+                    .share();
+            while (true) {
+                Flight leader = inFlight.putIfAbsent(key, flight);
+                if (leader == null) {
+                    return flight.response;
+                }
+                // A flight that may have read past a write since it started is left to its own callers.
+                if (!responseCache.changedSince(leader.lookup, leader.startedAt)) {
+                    return leader.response;
+                }
+                if (inFlight.replace(key, leader, flight)) {
+                    return flight.response;
+                }
+            }
+        });
+    }
+
+    private <T> Mono<ResponseEntity<Object>> send(HttpMethod method, String path, Long userId, Map<String, Object> uriVariables, @Nullable T body) {
+        WebClient.RequestBodySpec request = client.method(method)
+                .uri(path, uriVariables)
+                .headers(headers -> defaultHeaders(headers, userId));
+        if (body != null) {
+            byte[] rawBody = RawRequestBody.bytesOf(body);
+            request.bodyValue(rawBody != null ? rawBody : body);
         }
-        return prepareGatewayResponse(shareitServerResponse);
+        return request.exchangeToMono(BaseClient::prepareGatewayResponse);
     }
 
-    private HttpHeaders defaultHeaders(Long userId) {
-        HttpHeaders headers = new HttpHeaders();
+    private static void defaultHeaders(HttpHeaders headers, Long userId) {
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.setAccept(List.of(MediaType.APPLICATION_JSON));
         if (userId != null) {
             headers.set("X-Sharer-User-Id", String.valueOf(userId));
         }
-        return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
+    private static Mono<ResponseEntity<Object>> prepareGatewayResponse(ClientResponse response) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.rawStatusCode())
+                .headers(headers -> forwardHeaders(response.headers().asHttpHeaders(), headers));
+        return response.bodyToMono(byte[].class)
+                .<ResponseEntity<Object>>map(responseBuilder::body)
+                .defaultIfEmpty(responseBuilder.build());
+    }
 
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+    private static void forwardHeaders(HttpHeaders serverHeaders, HttpHeaders headers) {
+        Set<String> skipped = new HashSet<>(HOP_BY_HOP_HEADERS);
+        for (String connectionOption : serverHeaders.getConnection()) {
+            skipped.add(connectionOption.trim().toLowerCase(Locale.ROOT));
         }
+        serverHeaders.forEach((name, values) -> {
+            if (!skipped.contains(name.toLowerCase(Locale.ROOT))) {
+                headers.put(name, values);
+            }
+        });
+    }
+
+    private static class Flight {
+        private final GatewayResponseCache.Lookup lookup;
+        private final long startedAt;
+        private Mono<ResponseEntity<Object>> response;
 
-        return responseBuilder.build();
+        private Flight(@Nullable GatewayResponseCache.Lookup lookup, long startedAt) {
+            this.lookup = lookup;
+            this.startedAt = startedAt;
+        }
     }
 }
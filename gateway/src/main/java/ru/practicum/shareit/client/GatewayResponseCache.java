@@ -0,0 +1,307 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Component
+public class GatewayResponseCache {
+
+    private static final String CACHE_NAME = "gatewayResponses";
+    private static final int MAX_TRACKED_INVALIDATIONS = 4096;
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private static final String ALL = "*";
+    private static final String SEARCH = "search";
+    private static final String ITEM_VIEWS = "items";
+    private static final String REQUEST_VIEWS = "requests";
+
+    private static final Pattern USER = Pattern.compile("^/users/(\\d+)$");
+    private static final Pattern ITEM = Pattern.compile("^/items/(\\d+)$");
+    private static final Pattern ITEM_COMMENT = Pattern.compile("^/items/(\\d+)/comment$");
+    private static final Pattern BOOKING = Pattern.compile("^/bookings(/\\d+)?(\\?.*)?$");
+
+    private final int maxEntries;
+    private final List<Route> routes;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Set<String>> keysByTag = new HashMap<>();
+    private final LinkedHashMap<String, Long> invalidatedAt = new LinkedHashMap<>();
+    private final AtomicLong epoch = new AtomicLong();
+    private long forgottenBefore;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public GatewayResponseCache(@Value("${shareit.gateway.cache.max-entries:10000}") int maxEntries,
+                                @Value("${shareit.gateway.cache.user-ttl:PT60S}") Duration userTtl,
+                                @Value("${shareit.gateway.cache.item-ttl:PT5S}") Duration itemTtl,
+                                @Value("${shareit.gateway.cache.search-ttl:PT5S}") Duration searchTtl,
+                                @Value("${shareit.gateway.cache.request-ttl:PT10S}") Duration requestTtl,
+                                MeterRegistry meterRegistry) {
+        this.maxEntries = maxEntries;
+        this.routes = List.of(
+                new Route("^/users/(\\d+)$", userTtl, id -> Set.of("user:" + id)),
+                new Route("^/items/(\\d+)$", itemTtl, id -> Set.of("item:" + id, ITEM_VIEWS)),
+                new Route("^/items/search\\?.*$", searchTtl, id -> Set.of(SEARCH)),
+                new Route("^/requests/(\\d+)$", requestTtl, id -> Set.of("request:" + id, REQUEST_VIEWS)));
+        FunctionCounter.builder("cache.gets", hits, AtomicLong::get)
+                .tags("cache", CACHE_NAME, "result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.gets", misses, AtomicLong::get)
+                .tags("cache", CACHE_NAME, "result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.evictions", evictions, AtomicLong::get)
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+        Gauge.builder("cache.size", this, GatewayResponseCache::size)
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+    }
+
+    @Nullable
+    public Lookup lookup(String path, @Nullable Long userId) {
+        for (Route route : routes) {
+            Matcher matcher = route.pattern.matcher(path);
+            if (matcher.matches()) {
+                String id = matcher.groupCount() > 0 ? matcher.group(1) : null;
+                return new Lookup(path + "|" + userId, route, route.tags.apply(id), epoch.get());
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    public synchronized ResponseEntity<Object> get(Lookup lookup) {
+        Entry entry = entries.get(lookup.key);
+        if (entry != null && System.nanoTime() - entry.expiresAt >= 0) {
+            remove(lookup.key);
+            entry = null;
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.response;
+    }
+
+    public synchronized void put(Lookup lookup, ResponseEntity<Object> response) {
+        if (response.getStatusCode() != HttpStatus.OK || invalidatedSince(lookup.tags, lookup.epoch)) {
+            return;
+        }
+        remove(lookup.key);
+        entries.put(lookup.key, new Entry(response, lookup.tags, System.nanoTime() + lookup.route.ttl.toNanos()));
+        for (String tag : lookup.tags) {
+            keysByTag.computeIfAbsent(tag, key -> new HashSet<>()).add(lookup.key);
+        }
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && eldest.hasNext()) {
+            Map.Entry<String, Entry> evicted = eldest.next();
+            eldest.remove();
+            unlink(evicted.getKey(), evicted.getValue());
+            evictions.incrementAndGet();
+        }
+    }
+
+    public long epoch() {
+        return epoch.get();
+    }
+
+    /**
+     * Whether a read that started at {@code since} may have missed a write: one of its tags was invalidated
+     * since then, or, for reads this cache has no tags for, any write completed since then.
+     */
+    public synchronized boolean changedSince(@Nullable Lookup lookup, long since) {
+        return lookup != null ? invalidatedSince(lookup.tags, since) : epoch.get() != since;
+    }
+
+    /**
+     * Called once a write has finished; {@code response} is null when its outcome is unknown.
+     * Rejected writes and reads sent as POST change nothing and leave the epoch alone.
+     */
+    public void invalidate(HttpMethod method, String path, @Nullable ResponseEntity<Object> response) {
+        if (response != null && response.getStatusCode().is4xxClientError() || path.equals("/items/availability")) {
+            return;
+        }
+        boolean succeeded = response != null && response.getStatusCode().is2xxSuccessful();
+        invalidate(writeTags(method, path, succeeded ? response.getBody() : null));
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private Set<String> writeTags(HttpMethod method, String path, @Nullable Object body) {
+        Matcher matcher;
+        if ((matcher = USER.matcher(path)).matches()) {
+            return method == HttpMethod.DELETE ? Set.of(ALL) : Set.of("user:" + matcher.group(1), ITEM_VIEWS);
+        }
+        if ((matcher = ITEM.matcher(path)).matches()) {
+            Set<String> tags = new HashSet<>(Set.of("item:" + matcher.group(1), SEARCH));
+            if (method == HttpMethod.DELETE) {
+                tags.add(REQUEST_VIEWS);
+            } else {
+                addRequestTag(tags, body);
+            }
+            return tags;
+        }
+        if ((matcher = ITEM_COMMENT.matcher(path)).matches()) {
+            return Set.of("item:" + matcher.group(1));
+        }
+        if (path.equals("/items") && method == HttpMethod.POST) {
+            Set<String> tags = new HashSet<>(Set.of(SEARCH));
+            addRequestTag(tags, body);
+            return tags;
+        }
+        if (path.equals("/requests") || path.equals("/users")) {
+            return Set.of();
+        }
+        if (BOOKING.matcher(path).matches()) {
+            JsonNode itemId = json(body).path("item").path("id");
+            return itemId.canConvertToLong() ? Set.of("item:" + itemId.asLong()) : Set.of(ITEM_VIEWS);
+        }
+        return Set.of(ALL);
+    }
+
+    private static void addRequestTag(Set<String> tags, @Nullable Object body) {
+        if (body == null) {
+            tags.add(REQUEST_VIEWS);
+            return;
+        }
+        JsonNode requestId = json(body).path("requestId");
+        if (requestId.canConvertToLong()) {
+            tags.add("request:" + requestId.asLong());
+        }
+    }
+
+    private static JsonNode json(@Nullable Object body) {
+        try {
+            if (body instanceof byte[]) {
+                return JSON.readTree((byte[]) body);
+            }
+            return body == null ? JSON.missingNode() : JSON.valueToTree(body);
+        } catch (IOException | IllegalArgumentException e) {
+            return JSON.missingNode();
+        }
+    }
+
+    private synchronized void invalidate(Set<String> tags) {
+        long at = epoch.incrementAndGet();
+        for (String tag : tags) {
+            invalidatedAt.remove(tag);
+            invalidatedAt.put(tag, at);
+        }
+        Iterator<Map.Entry<String, Long>> eldest = invalidatedAt.entrySet().iterator();
+        while (invalidatedAt.size() > MAX_TRACKED_INVALIDATIONS && eldest.hasNext()) {
+            forgottenBefore = Math.max(forgottenBefore, eldest.next().getValue());
+            eldest.remove();
+        }
+        if (tags.contains(ALL)) {
+            entries.clear();
+            keysByTag.clear();
+            return;
+        }
+        for (String tag : tags) {
+            Set<String> keys = keysByTag.remove(tag);
+            if (keys != null) {
+                keys.forEach(this::remove);
+            }
+        }
+    }
+
+    private boolean invalidatedSince(Set<String> tags, long since) {
+        if (since < forgottenBefore) {
+            return true;
+        }
+        Long all = invalidatedAt.get(ALL);
+        if (all != null && all > since) {
+            return true;
+        }
+        for (String tag : tags) {
+            Long at = invalidatedAt.get(tag);
+            if (at != null && at > since) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void remove(String key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            unlink(key, entry);
+        }
+    }
+
+    private void unlink(String key, Entry entry) {
+        for (String tag : entry.tags) {
+            Set<String> keys = keysByTag.get(tag);
+            if (keys != null) {
+                keys.remove(key);
+                if (keys.isEmpty()) {
+                    keysByTag.remove(tag);
+                }
+            }
+        }
+    }
+
+    private static class Route {
+        private final Pattern pattern;
+        private final Duration ttl;
+        private final Function<String, Set<String>> tags;
+
+        private Route(String pattern, Duration ttl, Function<String, Set<String>> tags) {
+            this.pattern = Pattern.compile(pattern);
+            this.ttl = ttl;
+            this.tags = tags;
+        }
+    }
+
+    private static class Entry {
+        private final ResponseEntity<Object> response;
+        private final Set<String> tags;
+        private final long expiresAt;
+
+        private Entry(ResponseEntity<Object> response, Set<String> tags, long expiresAt) {
+            this.response = response;
+            this.tags = tags;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    public static class Lookup {
+        private final String key;
+        private final Route route;
+        private final Set<String> tags;
+        private final long epoch;
+
+        private Lookup(String key, Route route, Set<String> tags, long epoch) {
+            this.key = key;
+            this.route = route;
+            this.tags = tags;
+            this.epoch = epoch;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.lang.Nullable;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+final class RawRequestBody {
+
+    private static final String ATTRIBUTE = RawRequestBody.class.getName();
+
+    private final Object body;
+    private final byte[] bytes;
+
+    private RawRequestBody(Object body, byte[] bytes) {
+        this.body = body;
+        this.bytes = bytes;
+    }
+
+    static void capture(Object body, byte[] bytes) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(ATTRIBUTE, new RawRequestBody(body, bytes), RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    @Nullable
+    static byte[] bytesOf(Object body) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Object captured = attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (captured instanceof RawRequestBody && ((RawRequestBody) captured).body == body) {
+            return ((RawRequestBody) captured).bytes;
+        }
+        return null;
+    }
+}
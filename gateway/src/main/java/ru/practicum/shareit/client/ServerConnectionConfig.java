@@ -0,0 +1,33 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+@Configuration
+public class ServerConnectionConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider serverConnectionProvider(@Value("${shareit.server.max-connections:200}") int maxConnections,
+                                                       @Value("${shareit.server.pending-acquire-max-count:1000}") int pendingAcquireMaxCount,
+                                                       @Value("${shareit.server.pending-acquire-timeout:PT5S}") Duration pendingAcquireTimeout) {
+        return ConnectionProvider.builder("shareit-server")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .build();
+    }
+
+    @Bean
+    public ClientHttpConnector serverHttpConnector(ConnectionProvider serverConnectionProvider,
+                                                   @Value("${shareit.server.response-timeout:PT30S}") Duration responseTimeout) {
+        return new ReactorClientHttpConnector(HttpClient.create(serverConnectionProvider)
+                .responseTimeout(responseTimeout));
+    }
+}
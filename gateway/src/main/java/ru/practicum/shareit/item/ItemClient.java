@@ -2,15 +2,19 @@ package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GatewayResponseCache;
 import ru.practicum.shareit.item.controller.dto.CommentRequest;
+import ru.practicum.shareit.item.dto.AvailabilityRequest;
 import ru.practicum.shareit.item.dto.ItemRequest;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
@@ -18,49 +22,68 @@ public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit.server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit.server.url}") String serverUrl, WebClient.Builder builder,
+                      GatewayResponseCache responseCache) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                        .build(),
+                API_PREFIX,
+                responseCache
         );
     }
 
-    public ResponseEntity<Object> create(Long userId, ItemRequest itemDto) {
+    public Mono<ResponseEntity<Object>> create(Long userId, ItemRequest itemDto) {
         return post("", userId, itemDto);
     }
 
-    public ResponseEntity<Object> update(Long userId, Long itemId, ItemRequest itemDto) {
+    public Mono<ResponseEntity<Object>> update(Long userId, Long itemId, ItemRequest itemDto) {
         return patch("/" + itemId, userId, itemDto);
     }
 
-    public ResponseEntity<Object> remove(Long userId, Long itemId) {
+    public Mono<ResponseEntity<Object>> remove(Long userId, Long itemId) {
         return delete("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> createComment(Long userId, Long itemId, CommentRequest text) {
+    public Mono<ResponseEntity<Object>> createComment(Long userId, Long itemId, CommentRequest text) {
         return post("/" + itemId + "/comment", userId, text);
     }
 
-    public ResponseEntity<Object> searchItem(String text, Integer from, Integer size, Long userId) {
-        Map<String, Object> parameters = Map.of(
+    public Mono<ResponseEntity<Object>> searchItem(String text, Integer from, Integer size, String after, Long userId) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "text", text,
                 "from", from,
                 "size", size
-        );
-        return get("/search?text={text}&from={from}&size={size}", userId, parameters);
+        ));
+        return get(withCursor("/search?text={text}&from={from}&size={size}", parameters, after), userId, parameters);
     }
 
-    public ResponseEntity<Object> getAllByUser(Long userId, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
+    public Mono<ResponseEntity<Object>> getAllByUser(Long userId, Integer from, Integer size, String after) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "from", from,
                 "size", size
+        ));
+        return get(withCursor("?from={from}&size={size}", parameters, after), userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> getAvailability(Long userId, Long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
         );
-        return get("?from={from}&size={size}", userId, parameters);
+        return get("/" + itemId + "/availability?from={from}&to={to}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> getAvailability(Long userId, AvailabilityRequest request) {
+        return post("/availability", userId, request);
     }
 
-    public ResponseEntity<Object> get(Long userId, Long itemId) {
+    public Mono<ResponseEntity<Object>> get(Long userId, Long itemId) {
         return get("/" + itemId, userId);
     }
+
+    @Override
+    protected boolean sharedAcrossUsers(String target) {
+        return target.startsWith(API_PREFIX + "/search?");
+    }
 }
\ No newline at end of file
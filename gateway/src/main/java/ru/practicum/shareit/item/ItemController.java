@@ -2,14 +2,18 @@ package ru.practicum.shareit.item;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.controller.dto.CommentRequest;
+import ru.practicum.shareit.item.dto.AvailabilityRequest;
 import ru.practicum.shareit.item.dto.ItemRequest;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.time.LocalDateTime;
 
 @RestController
 @RequestMapping("/items")
@@ -21,50 +25,69 @@ public class ItemController {
     private final String header = "X-Sharer-User-Id";
 
     @PostMapping
-    public ResponseEntity<Object> create(@RequestHeader(header) Long userId, @Valid @RequestBody ItemRequest itemRequest) {
+    public Mono<ResponseEntity<Object>> create(@RequestHeader(header) Long userId, @Valid @RequestBody ItemRequest itemRequest) {
         log.info("Creating item {}", itemRequest);
         return itemClient.create(userId, itemRequest);
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> get(@PathVariable Long itemId,
+    public Mono<ResponseEntity<Object>> get(@PathVariable Long itemId,
                                       @RequestHeader(header) Long userId) {
         log.info("Получен запрос на поиск вещи с id = {}", itemId);
         return itemClient.get(userId, itemId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAll(@RequestHeader(header) Long userId,
+    public Mono<ResponseEntity<Object>> getAll(@RequestHeader(header) Long userId,
                                          @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                         @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+                                         @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                         @RequestParam(name = "after", required = false) String after) {
         log.info("Получен запрос на получение списка вещей владельца с id = {}", userId);
-        return itemClient.getAllByUser(userId, from, size);
+        return itemClient.getAllByUser(userId, from, size, after);
     }
 
     @DeleteMapping("/{itemId}")
-    public ResponseEntity<Object> remove(@RequestHeader(header) Long userId,
+    public Mono<ResponseEntity<Object>> remove(@RequestHeader(header) Long userId,
                                          @PathVariable Long itemId) {
         log.info("Remove item by id {}", itemId);
         return itemClient.remove(itemId, userId);
     }
 
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> update(@RequestHeader(header) Long userId,
+    public Mono<ResponseEntity<Object>> update(@RequestHeader(header) Long userId,
                                          @PathVariable Long itemId, @RequestBody ItemRequest itemRequest) {
         log.info("Update item {} by id {}", itemRequest, itemId);
         return itemClient.update(userId, itemId, itemRequest);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItem(@RequestHeader(header) Long userId, @RequestParam("text") String name,
+    public Mono<ResponseEntity<Object>> searchItem(@RequestHeader(header) Long userId, @RequestParam("text") String name,
                                              @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                             @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+                                             @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                             @RequestParam(name = "after", required = false) String after) {
         log.info("Search item with name {}", name);
-        return itemClient.searchItem(name, from, size, userId);
+        return itemClient.searchItem(name, from, size, after, userId);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public Mono<ResponseEntity<Object>> getAvailability(@RequestHeader(header) Long userId,
+                                                  @PathVariable Long itemId,
+                                                  @RequestParam(name = "from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                  @RequestParam(name = "to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Получен запрос на свободные окна вещи с id = {} с {} по {}", itemId, from, to);
+        return itemClient.getAvailability(userId, itemId, from, to);
+    }
+
+    @PostMapping("/availability")
+    public Mono<ResponseEntity<Object>> getAvailability(@RequestHeader(header) Long userId,
+                                                  @Valid @RequestBody AvailabilityRequest request) {
+        log.info("Получен запрос на проверку доступности {} вещей с {} по {}",
+                request.getItemIds().size(), request.getStart(), request.getEnd());
+        return itemClient.getAvailability(userId, request);
     }
 
     @PostMapping("{itemId}/comment")
-    public ResponseEntity<Object> createComment(@Valid @RequestBody CommentRequest commentRequest,
+    public Mono<ResponseEntity<Object>> createComment(@Valid @RequestBody CommentRequest commentRequest,
                                                 @PathVariable Long itemId,
                                                 @RequestHeader(header) Long userId) {
         log.info("Добавляем отзыва от пользователя с id = {}", userId);
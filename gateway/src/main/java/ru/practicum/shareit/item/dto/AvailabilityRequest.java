@@ -0,0 +1,27 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.*;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AvailabilityRequest {
+
+    @NotEmpty
+    @Size(max = 1000)
+    private List<@NotNull Long> itemIds;
+
+    @NotNull
+    private LocalDateTime start;
+
+    @NotNull
+    private LocalDateTime end;
+}
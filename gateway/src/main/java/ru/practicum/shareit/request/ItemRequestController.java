@@ -12,6 +12,7 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import javax.validation.Valid;
@@ -28,30 +29,31 @@ public class ItemRequestController {
     private final String header = "X-Sharer-User-Id";
 
     @PostMapping
-    public ResponseEntity<Object> createItemRequest(@RequestHeader(header) long userId,
+    public Mono<ResponseEntity<Object>> createItemRequest(@RequestHeader(header) long userId,
                                                     @Valid @RequestBody ItemRequestDto itemRequestDto) {
         log.info("Request for request for item {} from user {} creation", itemRequestDto.getDescription(), userId);
         return itemRequestClient.createItemRequest(userId, itemRequestDto);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getItemRequestById(@RequestHeader(header) long userId,
+    public Mono<ResponseEntity<Object>> getItemRequestById(@RequestHeader(header) long userId,
                                                      @PathVariable long requestId) {
         log.info("Request for get item's request {} from user {}", requestId, userId);
         return itemRequestClient.getItemRequestById(userId, requestId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getItemRequestsByOwnerId(@RequestHeader(header) long userId) {
+    public Mono<ResponseEntity<Object>> getItemRequestsByOwnerId(@RequestHeader(header) long userId) {
         log.info("Request for get  user's {} requests for items", userId);
         return itemRequestClient.getItemRequestsByOwnerId(userId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getItemRequests(@RequestHeader(header) long userId,
+    public Mono<ResponseEntity<Object>> getItemRequests(@RequestHeader(header) long userId,
                                                   @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                  @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+                                                  @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                  @RequestParam(name = "after", required = false) String after) {
         log.info("Request for get {} requests for items from {} request", size, from);
-        return itemRequestClient.getItemRequests(userId, from, size);
+        return itemRequestClient.getItemRequests(userId, from, size, after);
     }
 }
@@ -2,12 +2,13 @@ package ru.practicum.shareit.user;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GatewayResponseCache;
 import ru.practicum.shareit.user.dto.UserRequest;
 
 @Service
@@ -15,32 +16,34 @@ public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit.server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public UserClient(@Value("${shareit.server.url}") String serverUrl, WebClient.Builder builder,
+                      GatewayResponseCache responseCache) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                        .build(),
+                API_PREFIX,
+                responseCache
         );
     }
 
-    public ResponseEntity<Object> create(UserRequest userDto) {
+    public Mono<ResponseEntity<Object>> create(UserRequest userDto) {
         return post("", userDto);
     }
 
-    public ResponseEntity<Object> update(Long userId, UserRequest userDto) {
+    public Mono<ResponseEntity<Object>> update(Long userId, UserRequest userDto) {
         return patch("/" + userId, userId, userDto);
     }
 
-    public void remove(Long userId) {
-        delete("/" + userId, userId);
+    public Mono<ResponseEntity<Object>> remove(Long userId) {
+        return delete("/" + userId, userId);
     }
 
-    public ResponseEntity<Object> getAll() {
+    public Mono<ResponseEntity<Object>> getAll() {
         return get("");
     }
 
-    public ResponseEntity<Object> get(Long userId) {
+    public Mono<ResponseEntity<Object>> get(Long userId) {
         return get("/" + userId, userId);
     }
 }
\ No newline at end of file
@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.UserRequest;
 
 import javax.validation.Valid;
@@ -17,31 +18,31 @@ public class UserController {
     private final UserClient userClient;
 
     @PostMapping
-    public ResponseEntity<Object> create(@Valid @RequestBody UserRequest userRequest) {
+    public Mono<ResponseEntity<Object>> create(@Valid @RequestBody UserRequest userRequest) {
         log.info("Creating user {}", userRequest);
         return userClient.create(userRequest);
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> get(@PathVariable Long userId) {
+    public Mono<ResponseEntity<Object>> get(@PathVariable Long userId) {
         log.info("Get user by id {}", userId);
         return userClient.get(userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAll() {
+    public Mono<ResponseEntity<Object>> getAll() {
         log.info("Get all users ");
         return userClient.getAll();
     }
 
     @DeleteMapping("/{userId}")
-    public void remove(@PathVariable Long userId) {
+    public Mono<Void> remove(@PathVariable Long userId) {
         log.info("Remove user by id {}", userId);
-        userClient.remove(userId);
+        return userClient.remove(userId).then();
     }
 
     @PatchMapping("{userId}")
-    public ResponseEntity<Object> update(@PathVariable Long userId, @RequestBody UserRequest userRequest) {
+    public Mono<ResponseEntity<Object>> update(@PathVariable Long userId, @RequestBody UserRequest userRequest) {
         log.info("Update user {} by id {}", userId, userRequest);
         return userClient.update(userId, userRequest);
     }
@@ -0,0 +1,201 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GatewayResponseCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private GatewayResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new GatewayResponseCache(100, Duration.ofSeconds(60), Duration.ofSeconds(5), Duration.ofSeconds(5),
+                Duration.ofSeconds(10), meterRegistry);
+    }
+
+    @Test
+    void testSecondLookupServedFromCache() {
+        cache(cache.lookup("/items/1", 1L), "{\"id\":1}");
+
+        ResponseEntity<Object> cached = cache.get(cache.lookup("/items/1", 1L));
+
+        assertNotNull(cached);
+        assertEquals("{\"id\":1}", new String((byte[]) cached.getBody(), StandardCharsets.UTF_8));
+        assertEquals(1, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void testUncachedPathsAndOtherUsersMiss() {
+        cache(cache.lookup("/items/1", 1L), "{\"id\":1}");
+
+        assertNull(cache.lookup("/bookings/1", 1L));
+        assertNull(cache.get(cache.lookup("/items/1", 2L)));
+        assertNull(cache.get(cache.lookup("/items/2", 1L)));
+        assertEquals(2, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void testErrorResponsesAreNotCached() {
+        GatewayResponseCache.Lookup lookup = cache.lookup("/items/1", 1L);
+        cache.put(lookup, ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+
+        assertNull(cache.get(lookup));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testCapacityIsBounded() {
+        for (long id = 1; id <= 150; id++) {
+            cache(cache.lookup("/items/" + id, 1L), "{}");
+        }
+
+        assertEquals(100, cache.size());
+        assertEquals(50, meterRegistry.get("cache.evictions").functionCounter().count());
+    }
+
+    @Test
+    void testItemUpdateDropsOnlyThatItemAndSearch() {
+        cache(cache.lookup("/items/1", 1L), "{\"id\":1}");
+        cache(cache.lookup("/items/1", 2L), "{\"id\":1}");
+        cache(cache.lookup("/items/2", 1L), "{\"id\":2}");
+        cache(cache.lookup("/items/search?text=drill", null), "[]");
+        cache(cache.lookup("/users/1", null), "{\"id\":1}");
+
+        cache.invalidate(HttpMethod.PATCH, "/items/1", response("{\"id\":1}"));
+
+        assertNull(cache.get(cache.lookup("/items/1", 1L)));
+        assertNull(cache.get(cache.lookup("/items/1", 2L)));
+        assertNull(cache.get(cache.lookup("/items/search?text=drill", null)));
+        assertNotNull(cache.get(cache.lookup("/items/2", 1L)));
+        assertNotNull(cache.get(cache.lookup("/users/1", null)));
+    }
+
+    @Test
+    void testBookingDropsItsItemButKeepsSearch() {
+        cache(cache.lookup("/items/1", 1L), "{\"id\":1}");
+        cache(cache.lookup("/items/2", 1L), "{\"id\":2}");
+        cache(cache.lookup("/items/search?text=drill", null), "[]");
+
+        cache.invalidate(HttpMethod.POST, "/bookings", response("{\"id\":5,\"item\":{\"id\":1}}"));
+
+        assertNull(cache.get(cache.lookup("/items/1", 1L)));
+        assertNotNull(cache.get(cache.lookup("/items/2", 1L)));
+        assertNotNull(cache.get(cache.lookup("/items/search?text=drill", null)));
+    }
+
+    @Test
+    void testFailedBookingWithoutResponseDropsItemViews() {
+        cache(cache.lookup("/items/1", 1L), "{\"id\":1}");
+        cache(cache.lookup("/items/search?text=drill", null), "[]");
+
+        cache.invalidate(HttpMethod.PATCH, "/bookings/5?approved=true", null);
+
+        assertNull(cache.get(cache.lookup("/items/1", 1L)));
+        assertNotNull(cache.get(cache.lookup("/items/search?text=drill", null)));
+    }
+
+    @Test
+    void testRejectedWriteKeepsEntries() {
+        cache(cache.lookup("/items/1", 1L), "{\"id\":1}");
+        long epoch = cache.epoch();
+
+        cache.invalidate(HttpMethod.POST, "/bookings", ResponseEntity.status(HttpStatus.BAD_REQUEST).build());
+        cache.invalidate(HttpMethod.POST, "/items/availability", response("[]"));
+
+        assertNotNull(cache.get(cache.lookup("/items/1", 1L)));
+        assertEquals(epoch, cache.epoch());
+    }
+
+    @Test
+    void testChangedSinceOnlyForAffectedTags() {
+        GatewayResponseCache.Lookup item = cache.lookup("/items/1", 1L);
+        GatewayResponseCache.Lookup search = cache.lookup("/items/search?text=drill", null);
+        long since = cache.epoch();
+
+        cache.invalidate(HttpMethod.POST, "/bookings", response("{\"id\":5,\"item\":{\"id\":2}}"));
+
+        assertFalse(cache.changedSince(item, since));
+        assertFalse(cache.changedSince(search, since));
+
+        cache.invalidate(HttpMethod.POST, "/bookings", response("{\"id\":6,\"item\":{\"id\":1}}"));
+
+        assertTrue(cache.changedSince(item, since));
+        assertFalse(cache.changedSince(search, since));
+    }
+
+    @Test
+    void testChangedSinceWithoutTagsAfterAnyWrite() {
+        long since = cache.epoch();
+
+        cache.invalidate(HttpMethod.POST, "/users", response("{\"id\":1}"));
+
+        assertTrue(cache.changedSince(null, since));
+        assertFalse(cache.changedSince(null, cache.epoch()));
+    }
+
+    @Test
+    void testNewItemDropsSearchAndItsRequest() {
+        cache(cache.lookup("/requests/3", 1L), "{\"id\":3}");
+        cache(cache.lookup("/requests/4", 1L), "{\"id\":4}");
+        cache(cache.lookup("/items/search?text=drill", null), "[]");
+
+        cache.invalidate(HttpMethod.POST, "/items", response("{\"id\":7,\"requestId\":3}"));
+
+        assertNull(cache.get(cache.lookup("/requests/3", 1L)));
+        assertNull(cache.get(cache.lookup("/items/search?text=drill", null)));
+        assertNotNull(cache.get(cache.lookup("/requests/4", 1L)));
+    }
+
+    @Test
+    void testUserUpdateDropsThatUser() {
+        cache(cache.lookup("/users/1", null), "{\"id\":1}");
+        cache(cache.lookup("/users/2", null), "{\"id\":2}");
+
+        cache.invalidate(HttpMethod.PATCH, "/users/1", response("{\"id\":1}"));
+
+        assertNull(cache.get(cache.lookup("/users/1", null)));
+        assertNotNull(cache.get(cache.lookup("/users/2", null)));
+    }
+
+    @Test
+    void testUserDeletionDropsEverything() {
+        cache(cache.lookup("/users/2", null), "{\"id\":2}");
+        cache(cache.lookup("/items/1", 1L), "{\"id\":1}");
+
+        cache.invalidate(HttpMethod.DELETE, "/users/1", response("{}"));
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testResponseFetchedBeforeWriteIsNotCached() {
+        GatewayResponseCache.Lookup stale = cache.lookup("/items/1", 1L);
+        GatewayResponseCache.Lookup unaffected = cache.lookup("/items/2", 1L);
+
+        cache.invalidate(HttpMethod.PATCH, "/items/1", response("{\"id\":1}"));
+        cache(stale, "{\"id\":1}");
+        cache(unaffected, "{\"id\":2}");
+
+        assertNull(cache.get(cache.lookup("/items/1", 1L)));
+        assertNotNull(cache.get(cache.lookup("/items/2", 1L)));
+    }
+
+    private void cache(GatewayResponseCache.Lookup lookup, String body) {
+        cache.put(lookup, response(body));
+    }
+
+    private static ResponseEntity<Object> response(String body) {
+        return ResponseEntity.ok(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,115 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import ru.practicum.shareit.exception.ErrorHandler;
+import ru.practicum.shareit.user.UserController;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class RawRequestBodyAdviceTest {
+
+    private static final StubServer SERVER = start();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserController userController;
+
+    @Autowired
+    private ErrorHandler errorHandler;
+
+    @Autowired
+    private MappingJackson2HttpMessageConverter jsonConverter;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit.server.url", SERVER::url);
+    }
+
+    @AfterAll
+    static void stop() {
+        SERVER.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        SERVER.requests().clear();
+    }
+
+    @Test
+    void testBodyReachesServerByteForByte() throws Exception {
+        String body = "{ \"email\" :\t\"john@example.com\",\n   \"name\":\"Jöhn\"  }";
+
+        MvcResult started = mockMvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body.getBytes(StandardCharsets.UTF_8)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk());
+
+        assertThat(SERVER.requests()).hasSize(1);
+        assertThat(SERVER.requests().get(0).body).isEqualTo(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testInvalidBodyIsRejectedAsWithoutAdvice() throws Exception {
+        String body = "{\"name\":\"John\",\"email\":\"not-an-email\"}";
+        MockMvc withoutAdvice = MockMvcBuilders.standaloneSetup(userController)
+                .setControllerAdvice(errorHandler)
+                .setMessageConverters(jsonConverter)
+                .build();
+
+        MvcResult expected = withoutAdvice.perform(post("/users").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isBadRequest())
+                .andReturn();
+        MvcResult actual = mockMvc.perform(post("/users").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isBadRequest())
+                .andReturn();
+
+        assertThat(actual.getResolvedException()).isInstanceOf(MethodArgumentNotValidException.class);
+        assertThat(fieldErrors(actual)).isEqualTo(fieldErrors(expected)).containsExactly("email");
+        assertThat(actual.getResponse().getContentAsString()).isEqualTo(expected.getResponse().getContentAsString());
+        assertThat(SERVER.requests()).isEmpty();
+    }
+
+    private static List<String> fieldErrors(MvcResult result) {
+        return ((MethodArgumentNotValidException) result.getResolvedException()).getFieldErrors().stream()
+                .map(FieldError::getField)
+                .collect(Collectors.toList());
+    }
+
+    private static StubServer start() {
+        try {
+            return new StubServer();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ClientHttpRequest;
+import org.springframework.http.client.reactive.ClientHttpResponse;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ServerConnectionConfigTest {
+
+    private static final StubServer SERVER = start();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RecordingConnector connector;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit.server.url", SERVER::url);
+    }
+
+    @AfterAll
+    static void stop() {
+        SERVER.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        SERVER.requests().clear();
+        connector.uris.clear();
+    }
+
+    @Test
+    void testEveryClientUsesTheSharedConnector() throws Exception {
+        perform(get("/users/1"));
+        perform(get("/items/1").header("X-Sharer-User-Id", 1));
+        perform(get("/bookings/1").header("X-Sharer-User-Id", 1));
+        perform(get("/requests/1").header("X-Sharer-User-Id", 1));
+
+        assertThat(connector.delegate).isInstanceOf(ReactorClientHttpConnector.class);
+        assertThat(connector.uris.stream().map(URI::getPath).collect(Collectors.toList()))
+                .containsExactly("/users/1", "/items/1", "/bookings/1", "/requests/1");
+        assertThat(SERVER.requests()).hasSize(4);
+    }
+
+    private void perform(MockHttpServletRequestBuilder builder) throws Exception {
+        MvcResult started = mockMvc.perform(builder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"id\":1}"));
+    }
+
+    private static StubServer start() {
+        try {
+            return new StubServer();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @TestConfiguration
+    static class RecordingConnectorConfig {
+        @Bean
+        static BeanPostProcessor recordingConnectorPostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return "serverHttpConnector".equals(beanName) ? new RecordingConnector((ClientHttpConnector) bean) : bean;
+                }
+            };
+        }
+    }
+
+    static class RecordingConnector implements ClientHttpConnector {
+        private final ClientHttpConnector delegate;
+        private final List<URI> uris = new CopyOnWriteArrayList<>();
+
+        RecordingConnector(ClientHttpConnector delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Mono<ClientHttpResponse> connect(HttpMethod method, URI uri,
+                                                Function<? super ClientHttpRequest, Mono<Void>> requestCallback) {
+            uris.add(uri);
+            return delegate.connect(method, uri, requestCallback);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import ru.practicum.shareit.client.GatewayResponseCache;
+import ru.practicum.shareit.item.dto.ItemRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemClientTest {
+
+    private final List<ClientRequest> requests = new CopyOnWriteArrayList<>();
+    private final Map<String, Sinks.One<ClientResponse>> pending = new ConcurrentHashMap<>();
+    private ClientResponse.Builder serverResponse;
+    private ItemClient client;
+
+    @BeforeEach
+    void setUp() {
+        serverResponse = ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body("[]");
+        WebClient.Builder builder = WebClient.builder().exchangeFunction(request -> {
+            requests.add(request);
+            Sinks.One<ClientResponse> held = pending.remove(request.method() + " " + request.url().getRawPath());
+            return held != null ? held.asMono() : Mono.just(serverResponse.build());
+        });
+        GatewayResponseCache responseCache = new GatewayResponseCache(100, Duration.ofSeconds(60),
+                Duration.ofSeconds(5), Duration.ofSeconds(5), Duration.ofSeconds(10), new SimpleMeterRegistry());
+        client = new ItemClient("http://server", builder, responseCache);
+    }
+
+    @Test
+    void testPagedGetForwardsNextCursor() {
+        serverResponse.header("X-Next-Cursor", "eyJpZCI6MTB9");
+
+        ResponseEntity<Object> response = client.getAllByUser(1L, 0, 10, null).block();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("eyJpZCI6MTB9", response.getHeaders().getFirst("X-Next-Cursor"));
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals("[]", new String((byte[]) response.getBody(), StandardCharsets.UTF_8));
+        assertEquals("/items?from=0&size=10", requests.get(0).url().getRawPath() + "?" + requests.get(0).url().getRawQuery());
+        assertEquals("1", requests.get(0).headers().getFirst("X-Sharer-User-Id"));
+    }
+
+    @Test
+    void testCursorIsPassedToServer() {
+        client.getAllByUser(1L, 0, 10, "eyJpZCI6MTB9").block();
+
+        assertEquals("from=0&size=10&after=eyJpZCI6MTB9", requests.get(0).url().getRawQuery());
+    }
+
+    @Test
+    void testHopByHopHeadersAreNotForwarded() {
+        serverResponse.header(HttpHeaders.CONNECTION, "keep-alive, X-Trace")
+                .header("Keep-Alive", "timeout=60")
+                .header(HttpHeaders.TRANSFER_ENCODING, "chunked")
+                .header("X-Trace", "abc");
+
+        ResponseEntity<Object> response = client.getAllByUser(1L, 0, 10, null).block();
+
+        assertFalse(response.getHeaders().containsKey(HttpHeaders.CONNECTION));
+        assertFalse(response.getHeaders().containsKey("Keep-Alive"));
+        assertFalse(response.getHeaders().containsKey(HttpHeaders.TRANSFER_ENCODING));
+        assertFalse(response.getHeaders().containsKey("X-Trace"));
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+    }
+
+    @Test
+    void testConcurrentSearchesShareOneServerCall() {
+        Sinks.One<ClientResponse> search = hold("GET /items/search");
+
+        CompletableFuture<ResponseEntity<Object>> first = client.searchItem("drill", 0, 10, null, 1L).toFuture();
+        CompletableFuture<ResponseEntity<Object>> second = client.searchItem("drill", 0, 10, null, 2L).toFuture();
+        search.tryEmitValue(json("[{\"id\":1}]"));
+
+        assertEquals("[{\"id\":1}]", body(first.join()));
+        assertEquals("[{\"id\":1}]", body(second.join()));
+        assertEquals(1, requests.size());
+    }
+
+    @Test
+    void testSearchAfterWriteDoesNotJoinEarlierFlight() {
+        Sinks.One<ClientResponse> staleSearch = hold("GET /items/search");
+        CompletableFuture<ResponseEntity<Object>> before = client.searchItem("drill", 0, 10, null, 1L).toFuture();
+
+        serverResponse = ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body("{\"id\":1,\"name\":\"Drill\"}");
+        client.update(1L, 1L, ItemRequest.builder().name("Drill").build()).block();
+        serverResponse = ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body("[{\"id\":1,\"name\":\"Drill\"}]");
+        CompletableFuture<ResponseEntity<Object>> after = client.searchItem("drill", 0, 10, null, 2L).toFuture();
+        staleSearch.tryEmitValue(json("[]"));
+
+        assertEquals("[]", body(before.join()));
+        assertEquals("[{\"id\":1,\"name\":\"Drill\"}]", body(after.join()));
+        assertEquals(3, requests.size());
+        assertEquals("[{\"id\":1,\"name\":\"Drill\"}]",
+                body(client.searchItem("drill", 0, 10, null, 2L).block()));
+        assertEquals(3, requests.size());
+    }
+
+    @Test
+    void testItemReadAfterWriteDoesNotJoinEarlierFlight() {
+        Sinks.One<ClientResponse> staleItem = hold("GET /items/1");
+        CompletableFuture<ResponseEntity<Object>> before = client.get(1L, 1L).toFuture();
+
+        client.createComment(1L, 1L, null).block();
+        serverResponse = ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body("{\"id\":1,\"comments\":[{\"id\":1}]}");
+        CompletableFuture<ResponseEntity<Object>> after = client.get(1L, 1L).toFuture();
+        staleItem.tryEmitValue(json("{\"id\":1,\"comments\":[]}"));
+
+        assertEquals("{\"id\":1,\"comments\":[]}", body(before.join()));
+        assertEquals("{\"id\":1,\"comments\":[{\"id\":1}]}", body(after.join()));
+        assertEquals("{\"id\":1,\"comments\":[{\"id\":1}]}", body(client.get(1L, 1L).block()));
+        assertEquals(3, requests.size());
+    }
+
+    @Test
+    void testSearchAfterUnrelatedWritesJoinsFlight() {
+        Sinks.One<ClientResponse> search = hold("GET /items/search");
+        CompletableFuture<ResponseEntity<Object>> before = client.searchItem("drill", 0, 10, null, 1L).toFuture();
+
+        client.createComment(1L, 1L, null).block();
+        serverResponse = ClientResponse.create(HttpStatus.BAD_REQUEST);
+        client.update(1L, 1L, ItemRequest.builder().name("Drill").build()).block();
+        CompletableFuture<ResponseEntity<Object>> after = client.searchItem("drill", 0, 10, null, 2L).toFuture();
+        search.tryEmitValue(json("[{\"id\":1}]"));
+
+        assertEquals("[{\"id\":1}]", body(before.join()));
+        assertEquals("[{\"id\":1}]", body(after.join()));
+        assertEquals(3, requests.size());
+    }
+
+    private Sinks.One<ClientResponse> hold(String request) {
+        Sinks.One<ClientResponse> sink = Sinks.one();
+        pending.put(request, sink);
+        return sink;
+    }
+
+    private static ClientResponse json(String body) {
+        return ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(body)
+                .build();
+    }
+
+    private static String body(ResponseEntity<Object> response) {
+        return new String((byte[]) response.getBody(), StandardCharsets.UTF_8);
+    }
+}
@@ -2,11 +2,13 @@ package ru.practicum.shareit.booking.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.controller.dto.BookingResponse;
 import ru.practicum.shareit.booking.controller.dto.BookingShortDto;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.util.PageCursor;
 
 import java.util.List;
 
@@ -43,24 +45,30 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingResponse> getAllByUser(@RequestHeader(header) Long userId,
-                                              @RequestParam(name = "state",
-                                                      required = false) BookingState state,
-                                              @RequestParam(name = "from") Integer from,
-                                              @RequestParam(name = "size") Integer size) {
+    public ResponseEntity<List<BookingResponse>> getAllByUser(@RequestHeader(header) Long userId,
+                                                              @RequestParam(name = "state",
+                                                                      required = false) BookingState state,
+                                                              @RequestParam(name = "from") Integer from,
+                                                              @RequestParam(name = "size") Integer size,
+                                                              @RequestParam(name = "after", required = false) String after) {
         log.info("Получаем все бронирования текущего пользователяс id = {}", userId);
-        return bookingService.getAllByUser(userId, state, from, size);
+        List<BookingResponse> bookings = after == null
+                ? bookingService.getAllByUser(userId, state, from, size)
+                : bookingService.getAllByUserAfter(userId, state, after, size);
+        return PageCursor.withNextCursor(bookings, size, booking -> PageCursor.of(booking.getStart(), booking.getId()));
     }
 
     @GetMapping("/owner")
-    public List<BookingResponse> getAllByOwner(@RequestHeader(header) Long userId,
-                                               @RequestParam(name = "state",
-                                                       required = false) BookingState state,
-                                               @RequestParam(name = "from") Integer from,
-                                               @RequestParam(name = "size") Integer size) {
+    public ResponseEntity<List<BookingResponse>> getAllByOwner(@RequestHeader(header) Long userId,
+                                                               @RequestParam(name = "state",
+                                                                       required = false) BookingState state,
+                                                               @RequestParam(name = "from") Integer from,
+                                                               @RequestParam(name = "size") Integer size,
+                                                               @RequestParam(name = "after", required = false) String after) {
         log.info("Получаем все бронирования текущего владельца id = {}", userId);
-        return bookingService.getAllByOwner(userId, state, from, size);
+        List<BookingResponse> bookings = after == null
+                ? bookingService.getAllByOwner(userId, state, from, size)
+                : bookingService.getAllByOwnerAfter(userId, state, after, size);
+        return PageCursor.withNextCursor(bookings, size, booking -> PageCursor.of(booking.getStart(), booking.getId()));
     }
 }
-
-
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import ru.practicum.shareit.user.controller.dto.UserResponse;
+
+@Getter
+@AllArgsConstructor
+@Builder
+public class BookingItemResponse {
+
+    private final Long id;
+
+    private final String name;
+
+    private final String description;
+
+    private final Boolean available;
+
+    private final UserResponse owner;
+}
@@ -4,8 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import ru.practicum.shareit.booking.model.BookingStatus;
-import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.controller.dto.UserResponse;
 
 import java.time.LocalDateTime;
 
@@ -20,9 +19,9 @@ public class BookingResponse {
 
     private final LocalDateTime end;
 
-    private final Item item;
+    private final BookingItemResponse item;
 
-    private final User booker;
+    private final UserResponse booker;
 
     private final BookingStatus status;
 }
@@ -3,11 +3,14 @@ package ru.practicum.shareit.booking.mapper;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Mappings;
+import ru.practicum.shareit.booking.controller.dto.BookingItemResponse;
 import ru.practicum.shareit.booking.controller.dto.BookingRequest;
 import ru.practicum.shareit.booking.controller.dto.BookingResponse;
 import ru.practicum.shareit.booking.controller.dto.BookingShortDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingDetails;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.controller.dto.UserResponse;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.List;
@@ -18,6 +21,7 @@ public interface BookingMapper {
     List<BookingResponse> toBookingResponseOfList(List<Booking> bookings);
 
     @Mapping(source = "bookingStatus", target = "status")
+    @Mapping(target = "ownerId", ignore = true)
     Booking toBook(BookingRequest bookingRequest);
 
     @Mappings({
@@ -31,6 +35,28 @@ public interface BookingMapper {
     BookingResponse toBookingResponse(Booking booking, User booker, Item item);
 
 
+    default BookingResponse toBookingResponse(BookingDetails details) {
+        return BookingResponse.builder()
+                .id(details.getId())
+                .start(details.getStart())
+                .end(details.getEnd())
+                .status(details.getStatus())
+                .item(BookingItemResponse.builder()
+                        .id(details.getItemId())
+                        .name(details.getItemName())
+                        .description(details.getItemDescription())
+                        .available(details.getItemAvailable())
+                        .owner(new UserResponse(details.getOwnerId(), details.getOwnerName(), details.getOwnerEmail()))
+                        .build())
+                .booker(new UserResponse(details.getBookerId(), details.getBookerName(), details.getBookerEmail()))
+                .build();
+    }
+
+    BookingItemResponse toBookingItemResponse(Item item);
+
+    UserResponse toUserResponse(User user);
+
+    @Mapping(target = "ownerId", ignore = true)
     Booking toBookFromShort(BookingShortDto bookingShortDto);
 
     @Mapping(source = "item.id", target = "itemId")
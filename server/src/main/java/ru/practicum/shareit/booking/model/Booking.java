@@ -36,4 +36,7 @@ public class Booking {
     @Column(name = "status")
     @Enumerated(EnumType.STRING)
     private BookingStatus status;
+
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
 }
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class BookingDetails {
+
+    private final Long id;
+
+    private final LocalDateTime start;
+
+    private final LocalDateTime end;
+
+    private final BookingStatus status;
+
+    private final Long itemId;
+    private final String itemName;
+    private final String itemDescription;
+    private final Boolean itemAvailable;
+
+    private final Long ownerId;
+    private final String ownerName;
+    private final String ownerEmail;
+
+    private final Long bookerId;
+    private final String bookerName;
+    private final String bookerEmail;
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.booking.controller.dto.BookingShortDto;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+import ru.practicum.shareit.booking.model.BookingDetails;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface ArchivedBookingRepository extends JpaRepository<ArchivedBooking, Long> {
+    @Query("SELECT new ru.practicum.shareit.booking.model.BookingDetails(b.id, b.start, b.end, b.status, " +
+            "i.id, i.name, i.description, i.available, o.id, o.name, o.email, u.id, u.name, u.email) " +
+            "FROM ArchivedBooking b JOIN b.item i JOIN i.owner o JOIN b.booker u WHERE b.id = :bookingId")
+    Optional<BookingDetails> findDetailsById(Long bookingId);
+
+    @Query("SELECT COUNT(b) > 0 FROM ArchivedBooking b WHERE b.booker.id = :bookerId AND b.item.id = :itemId " +
+            "AND b.status = :status AND b.end < :end")
+    boolean existsByBookerIdAndItemIdAndStatusAndEndBefore(Long bookerId, Long itemId, BookingStatus status,
+                                                          LocalDateTime end);
+
+    @Query("SELECT new ru.practicum.shareit.booking.controller.dto.BookingShortDto(b.id, b.start, b.end, b.item.id, b.booker.id) " +
+            "FROM ArchivedBooking b WHERE b.item.id IN :itemIds AND b.start = " +
+            "(SELECT MAX(l.start) FROM ArchivedBooking l WHERE l.item.id = b.item.id) ORDER BY b.id")
+    List<BookingShortDto> findLastBookingsByItemIdIn(List<Long> itemIds);
+}
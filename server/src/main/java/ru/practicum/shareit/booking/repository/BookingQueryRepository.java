@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.util.PageCursor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingQueryRepository {
+
+    List<Booking> findPage(BookingRole role, Long userId, BookingState state, LocalDateTime now, int from, int size);
+
+    List<Booking> findPageAfter(BookingRole role, Long userId, BookingState state, LocalDateTime now,
+                                PageCursor after, int size);
+}
@@ -0,0 +1,146 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.exception.NotCorrectRequestException;
+import ru.practicum.shareit.util.PageCursor;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class BookingQueryRepositoryImpl implements BookingQueryRepository {
+
+    private static final Set<BookingState> ARCHIVED_STATES = EnumSet.of(BookingState.ALL, BookingState.PAST,
+            BookingState.REJECTED);
+    private static final Comparator<Booking> NEWEST_FIRST = Comparator.comparing(Booking::getStart)
+            .thenComparing(Booking::getId)
+            .reversed();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Booking> findPage(BookingRole role, Long userId, BookingState state, LocalDateTime now,
+                                  int from, int size) {
+        if (!ARCHIVED_STATES.contains(state)) {
+            return entityManager.createQuery(query(Booking.class, role, userId, state, now, null))
+                    .setFirstResult(from)
+                    .setMaxResults(size)
+                    .getResultList();
+        }
+        List<Booking> hot = entityManager.createQuery(query(Booking.class, role, userId, state, now, null))
+                .setMaxResults(from + size)
+                .getResultList();
+        List<ArchivedBooking> archived = entityManager.createQuery(query(ArchivedBooking.class, role, userId, state, now, null))
+                .setMaxResults(from + size)
+                .getResultList();
+        return merge(hot, archived, from, size);
+    }
+
+    @Override
+    public List<Booking> findPageAfter(BookingRole role, Long userId, BookingState state, LocalDateTime now,
+                                       PageCursor after, int size) {
+        List<Booking> hot = entityManager.createQuery(query(Booking.class, role, userId, state, now, after))
+                .setMaxResults(size)
+                .getResultList();
+        if (!ARCHIVED_STATES.contains(state)) {
+            return hot;
+        }
+        List<ArchivedBooking> archived = entityManager.createQuery(query(ArchivedBooking.class, role, userId, state, now, after))
+                .setMaxResults(size)
+                .getResultList();
+        return merge(hot, archived, 0, size);
+    }
+
+    private <T> CriteriaQuery<T> query(Class<T> type, BookingRole role, Long userId, BookingState state,
+                                       LocalDateTime now, PageCursor after) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(type);
+        Root<T> booking = query.from(type);
+        booking.fetch("item").fetch("owner");
+        booking.fetch("booker");
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (role == BookingRole.OWNER) {
+            predicates.add(cb.equal(booking.get("ownerId"), userId));
+        } else {
+            predicates.add(cb.equal(booking.get("booker").get("id"), userId));
+        }
+        switch (state) {
+            case ALL:
+                break;
+            case CURRENT:
+                predicates.add(cb.lessThan(booking.get("start"), now));
+                predicates.add(cb.greaterThan(booking.get("end"), now));
+                break;
+            case PAST:
+                predicates.add(cb.lessThan(booking.get("end"), now));
+                break;
+            case FUTURE:
+                predicates.add(cb.greaterThan(booking.get("start"), now));
+                break;
+            case WAITING:
+                predicates.add(cb.equal(booking.get("status"), BookingStatus.WAITING));
+                break;
+            case REJECTED:
+                predicates.add(cb.equal(booking.get("status"), BookingStatus.REJECTED));
+                break;
+            default:
+                throw new NotCorrectRequestException("Unknown state: " + BookingState.UNSUPPORTED_STATUS);
+        }
+        if (after != null) {
+            predicates.add(cb.or(
+                    cb.lessThan(booking.get("start"), after.getStart()),
+                    cb.and(cb.equal(booking.get("start"), after.getStart()),
+                            cb.lessThan(booking.get("id"), after.getId()))));
+        }
+
+        return query.select(booking)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(booking.get("start")), cb.desc(booking.get("id")));
+    }
+
+    /**
+     * The archiver moves rows from bookings to bookings_archive in one transaction, and the hot table is
+     * always read first, so a row moved between the two reads is seen twice, never missed. The hot copy wins.
+     */
+    private static List<Booking> merge(List<Booking> hot, List<ArchivedBooking> archived, int from, int size) {
+        Map<Long, Booking> byId = new LinkedHashMap<>();
+        Stream.concat(hot.stream(), archived.stream().map(BookingQueryRepositoryImpl::restore))
+                .forEach(booking -> byId.putIfAbsent(booking.getId(), booking));
+        return byId.values().stream()
+                .sorted(NEWEST_FIRST)
+                .skip(from)
+                .limit(size)
+                .collect(Collectors.toList());
+    }
+
+    private static Booking restore(ArchivedBooking archived) {
+        return Booking.builder()
+                .id(archived.getId())
+                .start(archived.getStart())
+                .end(archived.getEnd())
+                .item(archived.getItem())
+                .booker(archived.getBooker())
+                .status(archived.getStatus())
+                .ownerId(archived.getOwnerId())
+                .build();
+    }
+}
@@ -1,96 +1,61 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
-import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.controller.dto.BookingShortDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingDetails;
 import ru.practicum.shareit.booking.model.BookingStatus;
-import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingQueryRepository {
+    @Query("SELECT new ru.practicum.shareit.booking.model.BookingDetails(b.id, b.start, b.end, b.status, " +
+            "i.id, i.name, i.description, i.available, o.id, o.name, o.email, u.id, u.name, u.email) " +
+            "FROM Booking b JOIN b.item i JOIN i.owner o JOIN b.booker u WHERE b.id = :bookingId")
+    Optional<BookingDetails> findDetailsById(Long bookingId);
+
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = :status WHERE b.id = :bookingId AND b.status = :expected " +
+            "AND b.ownerId = :ownerId")
+    int updateStatus(Long bookingId, Long ownerId, BookingStatus expected, BookingStatus status);
+
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH i.owner JOIN FETCH b.booker " +
+            "WHERE b.booker.id = :bookerId AND b.item.id = :itemId AND b.status = :status AND b.end < :end")
     List<Booking> findAllByBookerIdAndItemIdAndStatusEqualsAndEndIsBefore(Long bookerId, Long itemId,
                                                                           BookingStatus status, LocalDateTime end);
 
-    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
-    List<Booking> findAllByBooker(User user, Sort sort);
-
-    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
-    List<Booking> findAllByBookerAndStartBeforeAndEndAfter(User user, LocalDateTime start, LocalDateTime end, Sort sort);
-
-    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
-    List<Booking> findAllByBookerAndEndBefore(User user, LocalDateTime now, Sort sort);
-
-    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
-    List<Booking> findAllByBookerAndStartAfter(User user, LocalDateTime now, Sort sort);
-
-    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
-    List<Booking> findAllByBookerAndStatusEquals(User user, BookingStatus status, Sort sort);
-
-    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
-    List<Booking> findAllByItemOwner(User owner, Sort sort);
-
-    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
-    List<Booking> findAllByItemOwnerAndStartBeforeAndEndAfter(User owner, LocalDateTime start, LocalDateTime end, Sort sort);
-
-    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
-    List<Booking> findAllByItemOwnerAndEndBefore(User owner, LocalDateTime now, Sort sort);
-
-    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
-    List<Booking> findAllByItemOwnerAndStartAfter(User owner, LocalDateTime now, Sort sort);
-
-    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
-    List<Booking> findAllByItemOwnerAndStatusEquals(User owner, BookingStatus status, Sort sort);
-
-    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
-    List<Booking> findAllByItemIdInAndStartBefore(List<Long> itemIds, LocalDateTime now, Sort sort);
-
-    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
-    List<Booking> findAllByItemIdAndStartAfter(Long id, LocalDateTime start, Sort sort);
-
-    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
-    List<Booking> findAllByItemIdAndStartBefore(Long id, LocalDateTime start, Sort sort);
-
-    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
-    Page<Booking> findAllByBooker(User user, Pageable page);
-
-    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
-    Page<Booking> findAllByBookerAndStartBeforeAndEndAfter(User user, LocalDateTime start, LocalDateTime end, Pageable page);
-
-    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
-    Page<Booking> findAllByBookerAndEndBefore(User user, LocalDateTime now, Pageable page);
-
-    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
-    Page<Booking> findAllByBookerAndStartAfter(User user, LocalDateTime now, Pageable page);
-
-    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
-    Page<Booking> findAllByBookerAndStatusEquals(User user, BookingStatus status, Pageable page);
-
-    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
-    Page<Booking> findAllByItemOwner(User owner, Pageable page);
-
-    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
-    Page<Booking> findAllByItemOwnerAndStartBeforeAndEndAfter(User owner, LocalDateTime start, LocalDateTime end, Pageable page);
-
-    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
-    Page<Booking> findAllByItemOwnerAndEndBefore(User owner, LocalDateTime now, Pageable page);
-
-    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
-    Page<Booking> findAllByItemOwnerAndStartAfter(User owner, LocalDateTime now, Pageable page);
-
-    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
-    Page<Booking> findAllByItemOwnerAndStatusEquals(User owner, BookingStatus status, Pageable page);
-
-    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
-    Page<Booking> findAllByItemIdAndStartBefore(Long id, LocalDateTime start, Pageable page);
-
-    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
-    Page<Booking> findAllByItemIdAndStartAfter(Long id, LocalDateTime start, Pageable page);
+    @Query("SELECT b FROM Booking b WHERE b.item.id IN :itemIds AND b.start = " +
+            "(SELECT MAX(l.start) FROM Booking l WHERE l.item.id = b.item.id AND l.start < :now)")
+    List<Booking> findLastBookingsByItemIdIn(List<Long> itemIds, LocalDateTime now);
+
+    @Query("SELECT b FROM Booking b WHERE b.item.id IN :itemIds AND b.start = " +
+            "(SELECT MIN(n.start) FROM Booking n WHERE n.item.id = b.item.id AND n.start > :now)")
+    List<Booking> findNextBookingsByItemIdIn(List<Long> itemIds, LocalDateTime now);
+
+    @Query("SELECT new ru.practicum.shareit.booking.controller.dto.BookingShortDto(b.id, b.start, b.end, b.item.id, b.booker.id) " +
+            "FROM Booking b WHERE b.item.id = :itemId AND (" +
+            "b.start = (SELECT MAX(l.start) FROM Booking l WHERE l.item.id = :itemId AND l.start < :now) OR " +
+            "b.start = (SELECT MIN(n.start) FROM Booking n WHERE n.item.id = :itemId AND n.start > :now)) " +
+            "ORDER BY b.start, b.id")
+    List<BookingShortDto> findLastAndNextBookingsByItemId(Long itemId, LocalDateTime now);
+
+    @Query("SELECT new ru.practicum.shareit.booking.controller.dto.BookingShortDto(b.id, b.start, b.end, b.item.id, b.booker.id) " +
+            "FROM Booking b WHERE b.status IN :statuses AND b.end > :now AND b.id > :id")
+    List<BookingShortDto> findActiveIntervals(List<BookingStatus> statuses, LocalDateTime now, Long id, Pageable page);
+
+    @Query("SELECT new ru.practicum.shareit.booking.controller.dto.BookingShortDto(b.id, b.start, b.end, b.item.id, b.booker.id) " +
+            "FROM Booking b WHERE b.item.id = :itemId AND b.status IN :statuses AND b.start < :end AND b.end > :start " +
+            "ORDER BY b.start, b.id")
+    List<BookingShortDto> findIntervalsByItemId(Long itemId, List<BookingStatus> statuses, LocalDateTime start, LocalDateTime end);
+
+    @Query("SELECT DISTINCT b.item.id FROM Booking b WHERE b.item.id IN :itemIds AND b.status IN :statuses " +
+            "AND b.start < :end AND b.end > :start")
+    List<Long> findBookedItemIds(List<Long> itemIds, List<BookingStatus> statuses, LocalDateTime start, LocalDateTime end);
 }
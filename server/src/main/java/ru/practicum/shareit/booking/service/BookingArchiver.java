@@ -0,0 +1,85 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Slf4j
+@Component
+public class BookingArchiver {
+
+    private static final String SELECT_BATCH = "SELECT id FROM bookings WHERE end_date < :horizon " +
+            "AND status <> 'WAITING' ORDER BY id LIMIT :limit";
+    private static final String COPY_BATCH = "INSERT INTO bookings_archive " +
+            "(id, start_date, end_date, item_id, booker_id, status, owner_id) " +
+            "SELECT id, start_date, end_date, item_id, booker_id, status, owner_id FROM bookings WHERE id IN (:ids)";
+    private static final String DELETE_BATCH = "DELETE FROM bookings WHERE id IN (:ids)";
+
+    private final Duration horizon;
+    private final int batchSize;
+    private final Duration pause;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public BookingArchiver(@Value("${shareit.booking-archive.horizon:P180D}") Duration horizon,
+                           @Value("${shareit.booking-archive.batch-size:500}") int batchSize,
+                           @Value("${shareit.booking-archive.pause:PT0.2S}") Duration pause,
+                           NamedParameterJdbcTemplate jdbcTemplate,
+                           TransactionTemplate transactionTemplate) {
+        this.horizon = horizon;
+        this.batchSize = batchSize;
+        this.pause = pause;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-archive.interval:PT1H}",
+            initialDelayString = "${shareit.booking-archive.interval:PT1H}")
+    public int archive() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(horizon);
+        int total = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> moveBatch(cutoff));
+            total += moved;
+            if (moved == batchSize && !sleep()) {
+                break;
+            }
+        } while (moved == batchSize);
+        if (total > 0) {
+            log.info("Archived {} bookings ended before {}", total, cutoff);
+        }
+        return total;
+    }
+
+    private int moveBatch(LocalDateTime cutoff) {
+        List<Long> ids = jdbcTemplate.queryForList(SELECT_BATCH, new MapSqlParameterSource()
+                .addValue("horizon", cutoff)
+                .addValue("limit", batchSize), Long.class);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        MapSqlParameterSource batch = new MapSqlParameterSource("ids", ids);
+        jdbcTemplate.update(COPY_BATCH, batch);
+        jdbcTemplate.update(DELETE_BATCH, batch);
+        return ids.size();
+    }
+
+    private boolean sleep() {
+        try {
+            Thread.sleep(pause.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
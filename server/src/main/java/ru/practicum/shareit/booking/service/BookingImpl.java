@@ -1,60 +1,50 @@
 package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.controller.dto.BookingResponse;
 import ru.practicum.shareit.booking.controller.dto.BookingShortDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingDetails;
+import ru.practicum.shareit.booking.model.BookingRole;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.DataNotCorrectException;
 import ru.practicum.shareit.exception.DataNotFoundException;
 import ru.practicum.shareit.exception.NotCorrectRequestException;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemDetailCache;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserCache;
+import ru.practicum.shareit.util.PageCursor;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class BookingImpl implements BookingService {
-    private final UserRepository userRepository;
+    private final UserCache userCache;
     private final ItemRepository itemRepository;
     private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
     private final BookingMapper mapper;
+    private final ItemDetailCache itemDetailCache;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final BookingLocks bookingLocks;
 
     @Override
     @Transactional
     public BookingResponse create(BookingShortDto bookingDto, Long userId) {
-        User user = userRepository.findById(userId)
+        User user = userCache.find(userId)
                 .orElseThrow(() -> new DataNotFoundException("Пользователь не найден id " + userId));
-        Item item = itemRepository.findById(bookingDto.getItemId())
-                .map(itemCurrent -> {
-                    User owner = itemCurrent.getOwner();
-                    Item item1 = Item.builder()
-                            .id(itemCurrent.getId())
-                            .name(itemCurrent.getName())
-                            .available(itemCurrent.getAvailable())
-                            .description(itemCurrent.getDescription())
-                            .request(itemCurrent.getRequest())
-                            .owner(User.builder()
-                                    .id(owner.getId())
-                                    .name(owner.getName())
-                                    .email(owner.getEmail())
-                                    .build())
-                            .build();
-                    return item1;
-                })
+        Item item = itemRepository.findWithOwnerById(bookingDto.getItemId())
                 .orElseThrow(() -> new DataNotFoundException("Item не найден с id " + bookingDto.getItemId()));
 
         if (!item.getAvailable())
@@ -65,141 +55,91 @@ public class BookingImpl implements BookingService {
             throw new NotCorrectRequestException("Нет даты для брони");
         if (bookingDto.getEnd().isBefore(bookingDto.getStart()) || bookingDto.getStart().equals(bookingDto.getEnd()))
             throw new NotCorrectRequestException("Не верно указана дата");
+        bookingLocks.lockItem(item.getId());
+        if (bookingLocks.isShared() && !bookingRepository.findBookedItemIds(List.of(item.getId()),
+                List.of(BookingStatus.WAITING, BookingStatus.APPROVED), bookingDto.getStart(), bookingDto.getEnd()).isEmpty())
+            throw new DataNotCorrectException("Вещь уже забронирована на эти даты");
         Booking booking = mapper.toBookFromShort(bookingDto);
         booking.setBooker(user);
         booking.setItem(item);
+        booking.setOwnerId(item.getOwner().getId());
         booking.setStatus(BookingStatus.WAITING);
 
-        return mapper.toBookingResponse(bookingRepository.save(booking), booking.getBooker(), booking.getItem());
+        Booking saved = bookingRepository.save(booking);
+        bookingIntervalIndex.reserve(saved.getId(), item.getId(), saved.getStart(), saved.getEnd());
+        itemDetailCache.invalidate(item.getId());
+        return mapper.toBookingResponse(saved, booking.getBooker(), booking.getItem());
     }
 
     @Override
     @Transactional
     public BookingResponse update(Long bookingId, Long userId, Boolean approved) {
-        Booking booking = getFullBooking(bookingId);
-        if (!userId.equals(booking.getItem().getOwner().getId()))
-            throw new DataNotFoundException(("Не правильный id пользователя " + userId));
-        if (!booking.getStatus().equals(BookingStatus.WAITING))
+        BookingStatus status = Boolean.TRUE.equals(approved) ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        if (bookingRepository.updateStatus(bookingId, userId, BookingStatus.WAITING, status) == 0) {
+            BookingDetails booking = getDetails(bookingId);
+            if (!userId.equals(booking.getOwnerId()))
+                throw new DataNotFoundException(("Не правильный id пользователя " + userId));
             throw new NotCorrectRequestException("Бронирование уже существует");
-
-        booking.setStatus(Boolean.TRUE.equals(approved) ? BookingStatus.APPROVED : BookingStatus.REJECTED);
-        return mapper.toBookingResponse(bookingRepository.save(booking), booking.getBooker(), booking.getItem());
+        }
+        BookingDetails booking = getDetails(bookingId);
+        if (status == BookingStatus.REJECTED)
+            bookingIntervalIndex.release(bookingId);
+        itemDetailCache.invalidate(booking.getItemId());
+        return mapper.toBookingResponse(booking);
     }
 
     @Override
     public BookingResponse getById(Long bookingId, Long userId) {
-        Booking booking = getFullBooking(bookingId);
+        BookingDetails booking = getDetails(bookingId);
 
-        if (!userId.equals(booking.getBooker().getId()) && !userId.equals(booking.getItem().getOwner().getId()))
+        if (!userId.equals(booking.getBookerId()) && !userId.equals(booking.getOwnerId()))
             throw new DataNotFoundException("Бронь могут смотреть только пользователь, который создал бронь" +
                     " или владелец вещи");
 
-        return mapper.toBookingResponse(booking, booking.getBooker(), booking.getItem());
+        return mapper.toBookingResponse(booking);
     }
 
     @Override
     @Transactional
     public List<BookingResponse> getAllByUser(Long userId, BookingState state, Integer from, Integer size) {
-        int pageNumber = from / size;
-        Pageable page = PageRequest.of(pageNumber, size, Sort.by(Sort.Direction.DESC, "start"));
-        return getBookingByUser(userId, state, page);
+        return getBookings(BookingRole.BOOKER, userId, state, from, size);
     }
 
     @Override
     public List<BookingResponse> getAllByOwner(Long userId, BookingState state, Integer from, Integer size) {
-        int pageNumber = from / size;
-        Pageable page = PageRequest.of(pageNumber, size, Sort.by(Sort.Direction.DESC, "start"));
-        return getBookingByOwner(userId, state, page);
+        return getBookings(BookingRole.OWNER, userId, state, from, size);
+    }
+
+    @Override
+    public List<BookingResponse> getAllByUserAfter(Long userId, BookingState state, String after, Integer size) {
+        return getBookingsAfter(BookingRole.BOOKER, userId, state, after, size);
+    }
+
+    @Override
+    public List<BookingResponse> getAllByOwnerAfter(Long userId, BookingState state, String after, Integer size) {
+        return getBookingsAfter(BookingRole.OWNER, userId, state, after, size);
     }
 
-    public Booking getFullBooking(Long bookingId) {
-        Booking booking = bookingRepository.findById(bookingId)
-                .map(booking1 -> {
-                    Item item = booking1.getItem();
-                    User owner = item.getOwner();
-                    User booker = booking1.getBooker();
-                    Booking bookingCurrent = Booking.builder()
-                            .id(booking1.getId())
-                            .status(booking1.getStatus())
-                            .start(booking1.getStart())
-                            .end(booking1.getEnd())
-                            .booker(User.builder()
-                                    .id(booker.getId())
-                                    .name(booker.getName())
-                                    .email(booker.getEmail())
-                                    .build())
-                            .item(Item.builder()
-                                    .id(item.getId())
-                                    .name(item.getName())
-                                    .available(item.getAvailable())
-                                    .description(item.getDescription())
-                                    .request(item.getRequest())
-                                    .owner(User.builder()
-                                            .id(owner.getId())
-                                            .name(owner.getName())
-                                            .email(owner.getEmail())
-                                            .build())
-                                    .build())
-                            .build();
-                    return bookingCurrent;
-                })
+    private BookingDetails getDetails(Long bookingId) {
+        return bookingRepository.findDetailsById(bookingId)
+                .or(() -> archivedBookingRepository.findDetailsById(bookingId))
                 .orElseThrow(() -> new DataNotFoundException("Бронь не найдена id " + bookingId));
-        return booking;
     }
 
-    public List<BookingResponse> getBookingByOwner(Long userId, BookingState state, Pageable page) {
-        User user = userRepository.findById(userId)
+    private List<BookingResponse> getBookings(BookingRole role, Long userId, BookingState state, Integer from,
+                                              Integer size) {
+        userCache.find(userId)
                 .orElseThrow(() -> new DataNotFoundException("Пользваоетль не найден с id " + userId));
-        List<Booking> bookings = new ArrayList<>();
-
-        switch (state) {
-            case ALL:
-                bookings.addAll(bookingRepository.findAllByItemOwner(user, page).getContent());
-                break;
-            case CURRENT:
-                bookings.addAll(bookingRepository.findAllByItemOwnerAndStartBeforeAndEndAfter(user,
-                        LocalDateTime.now(), LocalDateTime.now(), page).getContent());
-                break;
-            case PAST:
-                bookings.addAll(bookingRepository.findAllByItemOwnerAndEndBefore(user, LocalDateTime.now(), page).getContent());
-                break;
-            case FUTURE:
-                bookings.addAll(bookingRepository.findAllByItemOwnerAndStartAfter(user, LocalDateTime.now(), page).getContent());
-                break;
-            case WAITING:
-                bookings.addAll(bookingRepository.findAllByItemOwnerAndStatusEquals(user, BookingStatus.WAITING, page).getContent());
-                break;
-            case REJECTED:
-                bookings.addAll(bookingRepository.findAllByItemOwnerAndStatusEquals(user, BookingStatus.REJECTED, page).getContent());
-                break;
-            default:
-                throw new NotCorrectRequestException("Unknown state: " + BookingState.UNSUPPORTED_STATUS);
-        }
-
-        return bookings.stream().map(booking -> mapper.toBookingResponse(booking, booking.getBooker(), booking.getItem())).collect(Collectors.toList());
+        return mapper.toBookingResponseOfList(bookingRepository.findPage(role, userId, state, LocalDateTime.now(),
+                from / size * size, size));
     }
 
-    public List<BookingResponse> getBookingByUser(Long userId, BookingState state, Pageable page) {
-        User user = userRepository.findById(userId)
+    private List<BookingResponse> getBookingsAfter(BookingRole role, Long userId, BookingState state, String after,
+                                                   Integer size) {
+        userCache.find(userId)
                 .orElseThrow(() -> new DataNotFoundException("Пользваоетль не найден с id " + userId));
-        List<Booking> bookings = new ArrayList<>();
-
-
-        if (state.equals(BookingState.ALL)) {
-            bookings.addAll(bookingRepository.findAllByBooker(user, page).getContent());
-        } else if (state.equals(BookingState.CURRENT)) {
-            bookings.addAll(bookingRepository.findAllByBookerAndStartBeforeAndEndAfter(user, LocalDateTime.now(), LocalDateTime.now(), page).getContent());
-        } else if (state.equals(BookingState.PAST)) {
-            bookings.addAll(bookingRepository.findAllByBookerAndEndBefore(user, LocalDateTime.now(), page).getContent());
-        } else if (state.equals(BookingState.FUTURE)) {
-            bookings.addAll(bookingRepository.findAllByBookerAndStartAfter(user, LocalDateTime.now(), page).getContent());
-        } else if (state.equals(BookingState.WAITING)) {
-            bookings.addAll(bookingRepository.findAllByBookerAndStatusEquals(user, BookingStatus.WAITING, page).getContent());
-        } else if (state.equals(BookingState.REJECTED)) {
-            bookings.addAll(bookingRepository.findAllByBookerAndStatusEquals(user, BookingStatus.REJECTED, page).getContent());
-        } else
-            throw new NotCorrectRequestException("Unknown state: " + BookingState.UNSUPPORTED_STATUS);
-
-        return mapper.toBookingResponseOfList(bookings);
+        PageCursor cursor = PageCursor.decode(after).requireStart();
+        List<Booking> bookings = bookingRepository.findPageAfter(role, userId, state, LocalDateTime.now(), cursor, size);
+        return bookings.stream().map(booking -> mapper.toBookingResponse(booking, booking.getBooker(), booking.getItem())).collect(Collectors.toList());
     }
-}
\ No newline at end of file
+}
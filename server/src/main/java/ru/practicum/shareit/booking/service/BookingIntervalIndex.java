@@ -0,0 +1,202 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.controller.dto.BookingShortDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.DataNotCorrectException;
+import ru.practicum.shareit.item.controller.dto.AvailabilityWindow;
+import ru.practicum.shareit.util.Transactions;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingIntervalIndex implements SmartInitializingSingleton {
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    private static final List<BookingStatus> BLOCKING_STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+    private static final Comparator<Interval> BY_START = Comparator.comparing((Interval interval) -> interval.start)
+            .thenComparing(interval -> interval.bookingId);
+
+    private final BookingRepository bookingRepository;
+    private final BookingLocks bookingLocks;
+
+    private final Map<Long, NavigableSet<Interval>> intervalsByItem = new HashMap<>();
+    private final Map<Long, Interval> intervalsByBooking = new HashMap<>();
+    private final Set<Long> overlappingItems = new HashSet<>();
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public synchronized void rebuild() {
+        intervalsByItem.clear();
+        intervalsByBooking.clear();
+        overlappingItems.clear();
+        if (bookingLocks.isShared()) {
+            log.info("Booking interval index disabled, availability is read from the database in advisory lock mode");
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        long lastId = 0L;
+        List<BookingShortDto> batch;
+        do {
+            batch = bookingRepository.findActiveIntervals(BLOCKING_STATUSES, now, lastId,
+                    PageRequest.of(0, REBUILD_BATCH_SIZE, Sort.by(Sort.Direction.ASC, "id")));
+            for (BookingShortDto booking : batch) {
+                put(new Interval(booking.getId(), booking.getItemId(), booking.getStart(), booking.getEnd()));
+                lastId = booking.getId();
+            }
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+        for (Map.Entry<Long, NavigableSet<Interval>> item : intervalsByItem.entrySet()) {
+            if (hasOverlaps(item.getValue())) {
+                overlappingItems.add(item.getKey());
+            }
+        }
+        if (!overlappingItems.isEmpty()) {
+            log.warn("Active bookings overlap for items {}, availability for them is checked by full scan",
+                    overlappingItems);
+        }
+        log.info("Booking interval index built for {} active bookings", intervalsByBooking.size());
+    }
+
+    public synchronized void reserve(Long bookingId, Long itemId, LocalDateTime start, LocalDateTime end) {
+        if (bookingLocks.isShared()) {
+            return;
+        }
+        NavigableSet<Interval> intervals = intervalsByItem.computeIfAbsent(itemId, key -> new TreeSet<>(BY_START));
+        prune(intervals, LocalDateTime.now());
+        Interval conflict = findConflict(intervals, itemId, start, end);
+        if (conflict != null) {
+            throw new DataNotCorrectException("Вещь уже забронирована на эти даты, бронь id " + conflict.bookingId);
+        }
+        put(new Interval(bookingId, itemId, start, end));
+        Transactions.afterRollback(() -> drop(bookingId));
+    }
+
+    public void release(Long bookingId) {
+        Transactions.afterCommit(() -> drop(bookingId));
+    }
+
+    public List<AvailabilityWindow> freeWindows(Long itemId, LocalDateTime from, LocalDateTime to) {
+        if (bookingLocks.isShared()) {
+            List<Interval> intervals = new ArrayList<>();
+            for (BookingShortDto booking : bookingRepository.findIntervalsByItemId(itemId, BLOCKING_STATUSES, from, to)) {
+                intervals.add(new Interval(booking.getId(), booking.getItemId(), booking.getStart(), booking.getEnd()));
+            }
+            return windows(intervals, from, to);
+        }
+        synchronized (this) {
+            NavigableSet<Interval> intervals = intervalsByItem.getOrDefault(itemId, Collections.emptyNavigableSet());
+            Interval first = overlappingItems.contains(itemId)
+                    ? null : intervals.lower(new Interval(Long.MIN_VALUE, itemId, from, from));
+            return windows(first == null ? intervals : intervals.tailSet(first, true), from, to);
+        }
+    }
+
+    public synchronized int size() {
+        return intervalsByBooking.size();
+    }
+
+    private void put(Interval interval) {
+        intervalsByItem.computeIfAbsent(interval.itemId, key -> new TreeSet<>(BY_START)).add(interval);
+        intervalsByBooking.put(interval.bookingId, interval);
+    }
+
+    private synchronized void drop(Long bookingId) {
+        Interval interval = intervalsByBooking.remove(bookingId);
+        if (interval == null) {
+            return;
+        }
+        NavigableSet<Interval> intervals = intervalsByItem.get(interval.itemId);
+        intervals.remove(interval);
+        if (intervals.isEmpty()) {
+            intervalsByItem.remove(interval.itemId);
+            overlappingItems.remove(interval.itemId);
+        }
+    }
+
+    private Interval findConflict(NavigableSet<Interval> intervals, Long itemId, LocalDateTime start,
+                                  LocalDateTime end) {
+        NavigableSet<Interval> startingBefore = intervals.headSet(new Interval(Long.MIN_VALUE, itemId, end, end), false);
+        if (!overlappingItems.contains(itemId)) {
+            Interval before = startingBefore.isEmpty() ? null : startingBefore.last();
+            return before != null && before.end.isAfter(start) ? before : null;
+        }
+        for (Interval interval : startingBefore) {
+            if (interval.end.isAfter(start)) {
+                return interval;
+            }
+        }
+        return null;
+    }
+
+    private static List<AvailabilityWindow> windows(Iterable<Interval> intervals, LocalDateTime from, LocalDateTime to) {
+        List<AvailabilityWindow> windows = new ArrayList<>();
+        LocalDateTime cursor = from;
+        for (Interval interval : intervals) {
+            if (!interval.start.isBefore(to)) {
+                break;
+            }
+            if (interval.start.isAfter(cursor)) {
+                windows.add(new AvailabilityWindow(cursor, interval.start));
+            }
+            if (interval.end.isAfter(cursor)) {
+                cursor = interval.end;
+            }
+        }
+        if (cursor.isBefore(to)) {
+            windows.add(new AvailabilityWindow(cursor, to));
+        }
+        return windows;
+    }
+
+    private static boolean hasOverlaps(NavigableSet<Interval> intervals) {
+        Interval previous = null;
+        for (Interval interval : intervals) {
+            if (previous != null && previous.end.isAfter(interval.start)) {
+                return true;
+            }
+            previous = interval;
+        }
+        return false;
+    }
+
+    private void prune(NavigableSet<Interval> intervals, LocalDateTime now) {
+        while (!intervals.isEmpty() && !intervals.first().end.isAfter(now)) {
+            intervalsByBooking.remove(intervals.pollFirst().bookingId);
+        }
+    }
+
+    private static class Interval {
+        private final Long bookingId;
+        private final Long itemId;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+
+        private Interval(Long bookingId, Long itemId, LocalDateTime start, LocalDateTime end) {
+            this.bookingId = bookingId;
+            this.itemId = itemId;
+            this.start = start;
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.util.Transactions;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Component
+public class BookingLocks {
+
+    public enum Mode {
+        LOCAL, ADVISORY
+    }
+
+    private static final int ADVISORY_NAMESPACE = 0x5348;
+    private static final String TRY_ADVISORY_LOCK = "SELECT pg_try_advisory_xact_lock(?, ?)";
+    private static final String ADVISORY_LOCK = "SELECT pg_advisory_xact_lock(?, ?)";
+
+    private final Mode mode;
+    private final ReentrantLock[] stripes;
+    private final JdbcTemplate jdbcTemplate;
+    private final Counter contended;
+    private final Timer waitTimer;
+    private final Timer holdTimer;
+
+    public BookingLocks(@Value("${shareit.booking-lock.mode:local}") String mode,
+                        @Value("${shareit.booking-lock.stripes:64}") int stripes,
+                        JdbcTemplate jdbcTemplate,
+                        MeterRegistry meterRegistry) {
+        this.mode = Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        this.stripes = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        String modeTag = this.mode.name().toLowerCase(Locale.ROOT);
+        contended = Counter.builder("booking.lock.contended")
+                .tag("mode", modeTag)
+                .register(meterRegistry);
+        waitTimer = Timer.builder("booking.lock.wait")
+                .tag("mode", modeTag)
+                .register(meterRegistry);
+        holdTimer = Timer.builder("booking.lock.hold")
+                .tag("mode", modeTag)
+                .register(meterRegistry);
+    }
+
+    public boolean isShared() {
+        return mode == Mode.ADVISORY;
+    }
+
+    public void lockItem(Long itemId) {
+        long waitStart = System.nanoTime();
+        Runnable unlock = mode == Mode.ADVISORY ? lockAdvisory(itemId) : lockStripe(itemId);
+        long acquired = System.nanoTime();
+        waitTimer.record(acquired - waitStart, TimeUnit.NANOSECONDS);
+        Transactions.afterCompletion(() -> {
+            unlock.run();
+            holdTimer.record(System.nanoTime() - acquired, TimeUnit.NANOSECONDS);
+        });
+    }
+
+    private Runnable lockStripe(Long itemId) {
+        ReentrantLock lock = stripes[Math.floorMod(Long.hashCode(itemId), stripes.length)];
+        if (!lock.tryLock()) {
+            contended.increment();
+            lock.lock();
+        }
+        return lock::unlock;
+    }
+
+    private Runnable lockAdvisory(Long itemId) {
+        int key = Long.hashCode(itemId);
+        if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(TRY_ADVISORY_LOCK, Boolean.class, ADVISORY_NAMESPACE, key))) {
+            contended.increment();
+            jdbcTemplate.query(ADVISORY_LOCK, rs -> {
+            }, ADVISORY_NAMESPACE, key);
+        }
+        return () -> {
+        };
+    }
+}
@@ -18,4 +18,8 @@ public interface BookingService {
     List<BookingResponse> getAllByUser(Long userId, BookingState state, Integer from, Integer size);
 
     List<BookingResponse> getAllByOwner(Long userId, BookingState state, Integer from, Integer size);
+
+    List<BookingResponse> getAllByUserAfter(Long userId, BookingState state, String after, Integer size);
+
+    List<BookingResponse> getAllByOwnerAfter(Long userId, BookingState state, String after, Integer size);
 }
@@ -2,13 +2,20 @@ package ru.practicum.shareit.item.controller;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.item.controller.dto.AvailabilityRequest;
+import ru.practicum.shareit.item.controller.dto.AvailabilityWindow;
 import ru.practicum.shareit.item.controller.dto.CommentRequest;
 import ru.practicum.shareit.item.controller.dto.CommentResponse;
+import ru.practicum.shareit.item.controller.dto.ItemAvailability;
 import ru.practicum.shareit.item.controller.dto.ItemRequest;
 import ru.practicum.shareit.item.controller.dto.ItemResponse;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.util.PageCursor;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -34,11 +41,15 @@ public class ItemController {
     }
 
     @GetMapping
-    public List<ItemResponse> getAll(@RequestHeader(header) Long userId,
-                                     @RequestParam(name = "from") Integer from,
-                                     @RequestParam(name = "size") Integer size) {
+    public ResponseEntity<List<ItemResponse>> getAll(@RequestHeader(header) Long userId,
+                                                     @RequestParam(name = "from") Integer from,
+                                                     @RequestParam(name = "size") Integer size,
+                                                     @RequestParam(name = "after", required = false) String after) {
         log.info("Получен запрос на получение списка вещей владельца с id = {}", userId);
-        return service.getAllByUser(userId, from, size);
+        List<ItemResponse> items = after == null
+                ? service.getAllByUser(userId, from, size)
+                : service.getAllByUserAfter(userId, after, size);
+        return PageCursor.withNextCursor(items, size, item -> PageCursor.of(item.getId()));
     }
 
     @DeleteMapping("/{itemId}")
@@ -55,11 +66,30 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public List<ItemResponse> searchItem(@RequestParam("text") String name,
-                                         @RequestParam(name = "from") Integer from,
-                                         @RequestParam(name = "size") Integer size) {
+    public ResponseEntity<List<ItemResponse>> searchItem(@RequestParam("text") String name,
+                                                         @RequestParam(name = "from") Integer from,
+                                                         @RequestParam(name = "size") Integer size,
+                                                         @RequestParam(name = "after", required = false) String after) {
         log.info("Search item with name {}", name);
-        return service.searchItem(name, from, size);
+        List<ItemResponse> items = after == null
+                ? service.searchItem(name, from, size)
+                : service.searchItemAfter(name, after, size);
+        return PageCursor.withNextCursor(items, size, item -> PageCursor.of(item.getId()));
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public List<AvailabilityWindow> getAvailability(@PathVariable Long itemId,
+                                                    @RequestParam(name = "from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                    @RequestParam(name = "to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Получен запрос на свободные окна вещи с id = {} с {} по {}", itemId, from, to);
+        return service.getAvailability(itemId, from, to);
+    }
+
+    @PostMapping("/availability")
+    public List<ItemAvailability> getAvailability(@RequestBody AvailabilityRequest request) {
+        log.info("Получен запрос на проверку доступности {} вещей с {} по {}",
+                request.getItemIds() == null ? 0 : request.getItemIds().size(), request.getStart(), request.getEnd());
+        return service.getAvailability(request);
     }
 
     @PostMapping("{itemId}/comment")
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item.controller.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AvailabilityRequest {
+
+    private List<Long> itemIds;
+
+    private LocalDateTime start;
+
+    private LocalDateTime end;
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@Builder
+public class AvailabilityWindow {
+
+    private LocalDateTime start;
+
+    private LocalDateTime end;
+}
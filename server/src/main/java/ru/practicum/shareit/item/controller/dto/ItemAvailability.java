@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@Builder
+public class ItemAvailability {
+
+    private Long itemId;
+
+    private Boolean free;
+}
@@ -1,16 +1,25 @@
 package ru.practicum.shareit.item.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.model.Comment;
 
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+    @Query("SELECT c FROM Comment c WHERE c.item.id = :id")
     List<Comment> findAllByItemId(Long id);
 
-    Page<Comment> findAllByItemId(Long id, Pageable pageable);
+    @Query("SELECT c FROM Comment c WHERE c.item.id = :id")
+    Slice<Comment> findAllByItemId(Long id, Pageable pageable);
+
+    @Query("SELECT c FROM Comment c JOIN FETCH c.item JOIN FETCH c.author WHERE c.item.id IN :itemIds")
+    List<Comment> findAllByItemIdIn(List<Long> itemIds);
+
+    @Query("SELECT DISTINCT c.item.id FROM Comment c WHERE c.author.id = :authorId")
+    List<Long> findItemIdsByAuthorId(Long authorId);
 }
@@ -1,24 +1,34 @@
 package ru.practicum.shareit.item.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.model.Item;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
+    @EntityGraph(attributePaths = {"owner"})
+    Optional<Item> findWithOwnerById(Long id);
+
+    @Query("SELECT i FROM Item i WHERE i.owner.id = :ownerId")
     List<Item> findAllByOwnerId(Long ownerId, Sort sort);
 
-    Page<Item> findAllByOwnerId(Long ownerId, Pageable page);
+    @Query("SELECT i FROM Item i WHERE i.owner.id = :ownerId")
+    Slice<Item> findAllByOwnerId(Long ownerId, Pageable page);
+
+    @Query("SELECT i FROM Item i WHERE i.owner.id = :ownerId AND i.id > :id")
+    List<Item> findAllByOwnerIdAndIdGreaterThan(Long ownerId, Long id, Pageable page);
 
-    List<Item> findByRequestRequesterId(Long requestId);
+    @Query("SELECT i FROM Item i WHERE i.request.id IN :requestIds")
+    List<Item> findAllByRequestIdIn(List<Long> requestIds);
 
-    @Query("SELECT i FROM Item i WHERE LOWER(i.name) LIKE LOWER(CONCAT('%', :name, '%')) OR LOWER(i.description) LIKE LOWER(CONCAT('%', :name, '%')) AND i.available = true")
-    Page<Item> search(String name, Pageable pageable);
+    List<Item> findAllByIdGreaterThan(Long id, Pageable page);
 
 }
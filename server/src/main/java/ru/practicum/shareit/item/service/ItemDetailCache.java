@@ -0,0 +1,215 @@
+package ru.practicum.shareit.item.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.controller.dto.CommentResponse;
+import ru.practicum.shareit.item.controller.dto.ItemResponse;
+import ru.practicum.shareit.util.Transactions;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class ItemDetailCache {
+
+    private static final String CACHE_NAME = "itemDetails";
+    private static final int MAX_TRACKED_INVALIDATIONS = 4096;
+
+    private final long maxWeight;
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong generation = new AtomicLong();
+    private final LinkedHashMap<Long, Long> itemInvalidatedAt = new LinkedHashMap<>();
+    private final LinkedHashMap<Long, Long> ownerInvalidatedAt = new LinkedHashMap<>();
+    private long forgottenBefore;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private long weight;
+
+    public ItemDetailCache(@Value("${shareit.item-cache.max-weight:33554432}") long maxWeight,
+                           MeterRegistry meterRegistry) {
+        this.maxWeight = maxWeight;
+        FunctionCounter.builder("cache.gets", hits, AtomicLong::get)
+                .tags("cache", CACHE_NAME, "result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.gets", misses, AtomicLong::get)
+                .tags("cache", CACHE_NAME, "result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.evictions", evictions, AtomicLong::get)
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+        Gauge.builder("cache.size", this, ItemDetailCache::size)
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+        Gauge.builder("cache.weight", this, ItemDetailCache::weight)
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+    }
+
+    public synchronized ItemResponse get(Long itemId, Long userId) {
+        Entry entry = entries.get(itemId);
+        ItemResponse view = null;
+        if (entry != null) {
+            if (entry.ownerId.equals(userId)) {
+                if (entry.ownerViewExpiresAt != null && !LocalDateTime.now().isBefore(entry.ownerViewExpiresAt)) {
+                    entry.ownerView = null;
+                    entry.ownerViewExpiresAt = null;
+                }
+                view = entry.ownerView;
+            } else {
+                view = entry.publicView;
+            }
+        }
+        if (view == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return view;
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    public synchronized void putOwnerView(Long itemId, Long ownerId, ItemResponse view, LocalDateTime expiresAt,
+                                          long loadedAtGeneration) {
+        if (invalidatedSince(itemId, ownerId, loadedAtGeneration)) {
+            return;
+        }
+        Entry entry = entry(itemId, ownerId);
+        entry.ownerView = view;
+        entry.ownerViewExpiresAt = expiresAt;
+        reweigh(entry);
+    }
+
+    public synchronized void putPublicView(Long itemId, Long ownerId, ItemResponse view, long loadedAtGeneration) {
+        if (invalidatedSince(itemId, ownerId, loadedAtGeneration)) {
+            return;
+        }
+        Entry entry = entry(itemId, ownerId);
+        entry.publicView = view;
+        reweigh(entry);
+    }
+
+    public void invalidate(Long itemId) {
+        Transactions.afterCommit(() -> {
+            synchronized (this) {
+                track(itemInvalidatedAt, itemId);
+                Entry entry = entries.remove(itemId);
+                if (entry != null) {
+                    weight -= entry.weight;
+                }
+            }
+        });
+    }
+
+    public void invalidateOwner(Long ownerId) {
+        Transactions.afterCommit(() -> {
+            synchronized (this) {
+                track(ownerInvalidatedAt, ownerId);
+                Iterator<Entry> cached = entries.values().iterator();
+                while (cached.hasNext()) {
+                    Entry entry = cached.next();
+                    if (entry.ownerId.equals(ownerId)) {
+                        cached.remove();
+                        weight -= entry.weight;
+                    }
+                }
+            }
+        });
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long weight() {
+        return weight;
+    }
+
+    private void track(LinkedHashMap<Long, Long> invalidatedAt, Long id) {
+        invalidatedAt.remove(id);
+        invalidatedAt.put(id, generation.incrementAndGet());
+        Iterator<Long> eldest = invalidatedAt.values().iterator();
+        while (invalidatedAt.size() > MAX_TRACKED_INVALIDATIONS) {
+            forgottenBefore = Math.max(forgottenBefore, eldest.next());
+            eldest.remove();
+        }
+    }
+
+    private boolean invalidatedSince(Long itemId, Long ownerId, long loadedAtGeneration) {
+        if (loadedAtGeneration < forgottenBefore) {
+            return true;
+        }
+        Long item = itemInvalidatedAt.get(itemId);
+        Long owner = ownerInvalidatedAt.get(ownerId);
+        return item != null && item > loadedAtGeneration || owner != null && owner > loadedAtGeneration;
+    }
+
+    private Entry entry(Long itemId, Long ownerId) {
+        Entry entry = entries.get(itemId);
+        if (entry == null || !entry.ownerId.equals(ownerId)) {
+            if (entry != null) {
+                weight -= entry.weight;
+            }
+            entry = new Entry(ownerId);
+            entries.put(itemId, entry);
+        }
+        return entry;
+    }
+
+    private void reweigh(Entry entry) {
+        long newWeight = weigh(entry.ownerView) + weigh(entry.publicView);
+        weight += newWeight - entry.weight;
+        entry.weight = newWeight;
+        Iterator<Map.Entry<Long, Entry>> eldest = entries.entrySet().iterator();
+        while (weight > maxWeight && eldest.hasNext()) {
+            Entry evicted = eldest.next().getValue();
+            eldest.remove();
+            weight -= evicted.weight;
+            evictions.incrementAndGet();
+        }
+    }
+
+    private static long weigh(ItemResponse view) {
+        if (view == null) {
+            return 0;
+        }
+        long bytes = 128 + length(view.getName()) + length(view.getDescription());
+        if (view.getLastBooking() != null) {
+            bytes += 96;
+        }
+        if (view.getNextBooking() != null) {
+            bytes += 96;
+        }
+        if (view.getComments() != null) {
+            for (CommentResponse comment : view.getComments()) {
+                bytes += 96 + length(comment.getText()) + length(comment.getAuthorName());
+            }
+        }
+        return bytes;
+    }
+
+    private static long length(String value) {
+        return value == null ? 0 : 2L * value.length();
+    }
+
+    private static class Entry {
+        private final Long ownerId;
+        private ItemResponse ownerView;
+        private LocalDateTime ownerViewExpiresAt;
+        private ItemResponse publicView;
+        private long weight;
+
+        private Entry(Long ownerId) {
+            this.ownerId = ownerId;
+        }
+    }
+}
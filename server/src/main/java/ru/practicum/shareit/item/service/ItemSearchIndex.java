@@ -0,0 +1,341 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.util.Transactions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemSearchIndex implements SmartInitializingSingleton {
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    private static final int MIN_RANK_TOKEN_LENGTH = 3;
+    private static final int MAX_RANK_TOKENS = 32;
+    private static final int MAX_RANK_POSTINGS = 1000;
+    private static final int MIN_STOPWORD_POSTINGS = 50;
+    private static final int STOPWORD_SHARE_DIVISOR = 4;
+
+    private final ItemRepository itemRepository;
+
+    private final NavigableMap<String, NavigableSet<Long>> postings = new TreeMap<>();
+    private final Map<Long, Set<String>> tokensByItem = new HashMap<>();
+    private final Map<Long, Long> ownerByItem = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            tokensByItem.clear();
+            ownerByItem.clear();
+            long lastId = 0L;
+            List<Item> batch;
+            do {
+                batch = itemRepository.findAllByIdGreaterThan(lastId,
+                        PageRequest.of(0, REBUILD_BATCH_SIZE, Sort.by(Sort.Direction.ASC, "id")));
+                for (Item item : batch) {
+                    put(item);
+                    lastId = item.getId();
+                }
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+            log.info("Item search index built for {} available items", tokensByItem.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void index(Item item) {
+        Long itemId = item.getId();
+        String name = item.getName();
+        String description = item.getDescription();
+        Long ownerId = ownerId(item);
+        boolean available = Boolean.TRUE.equals(item.getAvailable());
+        Transactions.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                drop(itemId);
+                if (available) {
+                    link(itemId, ownerId, tokenize(name + " " + description));
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void remove(Long itemId) {
+        Transactions.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                drop(itemId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public List<Long> search(String text, int from, int size) {
+        lock.readLock().lock();
+        try {
+            return collect(text, null, from, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Long> searchAfter(String text, Long afterId, int size) {
+        lock.readLock().lock();
+        try {
+            return collect(text, afterId, 0, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Long> rank(String text, Long excludedOwnerId, int limit) {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = new HashMap<>();
+            int indexed = tokensByItem.size();
+            int maxPostings = Math.min(MAX_RANK_POSTINGS, Math.max(MIN_STOPWORD_POSTINGS, indexed / STOPWORD_SHARE_DIVISOR));
+            tokenize(text).stream()
+                    .filter(token -> token.length() >= MIN_RANK_TOKEN_LENGTH)
+                    .limit(MAX_RANK_TOKENS)
+                    .forEach(token -> {
+                        long matched = postingSize(token, maxPostings + 1L);
+                        if (matched == 0 || matched > maxPostings) {
+                            return;
+                        }
+                        double weight = Math.log(1.0 + (double) indexed / matched);
+                        Iterator<Long> matches = new MergedPostings(postings(token).values(), null);
+                        while (matches.hasNext()) {
+                            Long itemId = matches.next();
+                            if (excludedOwnerId == null || !excludedOwnerId.equals(ownerByItem.get(itemId))) {
+                                scores.merge(itemId, weight, Double::sum);
+                            }
+                        }
+                    });
+            Comparator<Map.Entry<Long, Double>> best = Map.Entry.<Long, Double>comparingByValue().reversed()
+                    .thenComparing(Map.Entry.comparingByKey());
+            PriorityQueue<Map.Entry<Long, Double>> top = new PriorityQueue<>(limit + 1, best.reversed());
+            for (Map.Entry<Long, Double> score : scores.entrySet()) {
+                top.offer(score);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+            return top.stream()
+                    .sorted(best)
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static Set<String> tokenize(String text) {
+        if (text == null) {
+            return Collections.emptySet();
+        }
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{Nd}]+"))
+                .filter(token -> !token.isEmpty())
+                .collect(Collectors.toCollection(HashSet::new));
+    }
+
+    private List<Long> collect(String text, Long afterId, int from, int size) {
+        Set<String> tokens = tokenize(text);
+        if (tokens.isEmpty() || size <= 0) {
+            return Collections.emptyList();
+        }
+        String driver = null;
+        long driverSize = Long.MAX_VALUE;
+        for (String token : tokens) {
+            long matched = postingSize(token, driverSize);
+            if (matched == 0) {
+                return Collections.emptyList();
+            }
+            if (matched < driverSize) {
+                driver = token;
+                driverSize = matched;
+            }
+        }
+        List<String> probes = new ArrayList<>(tokens);
+        probes.remove(driver);
+        List<Long> page = new ArrayList<>();
+        int skipped = 0;
+        Iterator<Long> candidates = new MergedPostings(postings(driver).values(), afterId);
+        while (page.size() < size && candidates.hasNext()) {
+            Long itemId = candidates.next();
+            if (hasAllPrefixes(tokensByItem.get(itemId), probes)) {
+                if (skipped < from) {
+                    skipped++;
+                } else {
+                    page.add(itemId);
+                }
+            }
+        }
+        return page;
+    }
+
+    private long postingSize(String prefix, long limit) {
+        long total = 0;
+        for (NavigableSet<Long> ids : postings(prefix).values()) {
+            total += ids.size();
+            if (total >= limit) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    private static boolean hasAllPrefixes(Set<String> itemTokens, List<String> prefixes) {
+        if (itemTokens == null) {
+            return false;
+        }
+        for (String prefix : prefixes) {
+            if (itemTokens.stream().noneMatch(token -> token.startsWith(prefix))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private NavigableMap<String, NavigableSet<Long>> postings(String prefix) {
+        return postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private void put(Item item) {
+        if (Boolean.TRUE.equals(item.getAvailable())) {
+            link(item.getId(), ownerId(item), tokenize(item.getName() + " " + item.getDescription()));
+        }
+    }
+
+    private static Long ownerId(Item item) {
+        return item.getOwner() == null ? null : item.getOwner().getId();
+    }
+
+    private void link(Long itemId, Long ownerId, Set<String> tokens) {
+        tokensByItem.put(itemId, tokens);
+        if (ownerId != null) {
+            ownerByItem.put(itemId, ownerId);
+        }
+        for (String token : tokens) {
+            postings.computeIfAbsent(token, key -> new TreeSet<>()).add(itemId);
+        }
+    }
+
+    private void drop(Long itemId) {
+        Set<String> tokens = tokensByItem.remove(itemId);
+        ownerByItem.remove(itemId);
+        if (tokens == null) {
+            return;
+        }
+        for (String token : tokens) {
+            NavigableSet<Long> ids = postings.get(token);
+            if (ids != null) {
+                ids.remove(itemId);
+                if (ids.isEmpty()) {
+                    postings.remove(token);
+                }
+            }
+        }
+    }
+
+    private static class MergedPostings implements Iterator<Long> {
+        private final PriorityQueue<Cursor> cursors = new PriorityQueue<>(Comparator.comparing(cursor -> cursor.head));
+        private Long last;
+
+        private MergedPostings(Collection<NavigableSet<Long>> lists, Long afterId) {
+            for (NavigableSet<Long> ids : lists) {
+                Iterator<Long> iterator = afterId == null ? ids.iterator() : ids.tailSet(afterId, false).iterator();
+                if (iterator.hasNext()) {
+                    cursors.add(new Cursor(iterator));
+                }
+            }
+            skipDuplicates();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !cursors.isEmpty();
+        }
+
+        @Override
+        public Long next() {
+            if (cursors.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            Cursor cursor = cursors.poll();
+            last = cursor.head;
+            if (cursor.advance()) {
+                cursors.add(cursor);
+            }
+            skipDuplicates();
+            return last;
+        }
+
+        private void skipDuplicates() {
+            while (!cursors.isEmpty() && cursors.peek().head.equals(last)) {
+                Cursor cursor = cursors.poll();
+                if (cursor.advance()) {
+                    cursors.add(cursor);
+                }
+            }
+        }
+    }
+
+    private static class Cursor {
+        private final Iterator<Long> iterator;
+        private Long head;
+
+        private Cursor(Iterator<Long> iterator) {
+            this.iterator = iterator;
+            this.head = iterator.next();
+        }
+
+        private boolean advance() {
+            if (!iterator.hasNext()) {
+                return false;
+            }
+            head = iterator.next();
+            return true;
+        }
+    }
+}
@@ -1,10 +1,14 @@
 package ru.practicum.shareit.item.service;
 
+import ru.practicum.shareit.item.controller.dto.AvailabilityRequest;
+import ru.practicum.shareit.item.controller.dto.AvailabilityWindow;
 import ru.practicum.shareit.item.controller.dto.CommentRequest;
 import ru.practicum.shareit.item.controller.dto.CommentResponse;
+import ru.practicum.shareit.item.controller.dto.ItemAvailability;
 import ru.practicum.shareit.item.controller.dto.ItemRequest;
 import ru.practicum.shareit.item.controller.dto.ItemResponse;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -21,5 +25,13 @@ public interface ItemService {
 
     List<ItemResponse> searchItem(String name, Integer from, Integer size);
 
+    List<ItemResponse> getAllByUserAfter(Long userId, String after, Integer size);
+
+    List<ItemResponse> searchItemAfter(String name, String after, Integer size);
+
     CommentResponse createComment(Long userId, Long itemId, CommentRequest commentRequest);
+
+    List<AvailabilityWindow> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
+
+    List<ItemAvailability> getAvailability(AvailabilityRequest request);
 }
@@ -6,14 +6,20 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.controller.dto.BookingShortDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
 import ru.practicum.shareit.exception.DataNotFoundException;
 import ru.practicum.shareit.exception.NotCorrectRequestException;
+import ru.practicum.shareit.item.controller.dto.AvailabilityRequest;
+import ru.practicum.shareit.item.controller.dto.AvailabilityWindow;
 import ru.practicum.shareit.item.controller.dto.CommentRequest;
 import ru.practicum.shareit.item.controller.dto.CommentResponse;
+import ru.practicum.shareit.item.controller.dto.ItemAvailability;
 import ru.practicum.shareit.item.controller.dto.ItemRequest;
 import ru.practicum.shareit.item.controller.dto.ItemResponse;
 import ru.practicum.shareit.item.mapper.CommentMapper;
@@ -23,14 +29,20 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.service.ItemRequestFeed;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserCache;
+import ru.practicum.shareit.util.PageCursor;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @AllArgsConstructor
@@ -38,21 +50,23 @@ import java.util.stream.Collectors;
 public class ItemServiceImpl implements ItemService {
 
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
+    private final UserCache userCache;
     private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
     private final BookingMapper bookingMapper;
     private final CommentRepository commentRepository;
     private final ItemMapper itemMapper;
     private final CommentMapper commentMapper;
     private final ItemRequestRepository itemRequestRepository;
-    private final Sort sortByStartDesc = Sort.by(Sort.Direction.DESC, "start");
-    private final Sort sortByStartAsc = Sort.by(Sort.Direction.ASC, "start");
-    private final Sort sortByItemAndStartAsc = Sort.by(Sort.Direction.ASC, "itemId", "start");
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemDetailCache itemDetailCache;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ItemRequestFeed itemRequestFeed;
 
     @Override
     @Transactional
     public ItemResponse create(ItemRequest item, Long userId) {
-        User user = userRepository.findById(userId)
+        User user = userCache.find(userId)
                 .orElseThrow(() -> new DataNotFoundException("Пользователь не найден с id " + userId));
 
         Item itemModified = itemMapper.toItem(item, user);
@@ -63,29 +77,16 @@ public class ItemServiceImpl implements ItemService {
             }
         } else
             itemModified.setRequest(null);
-        return itemMapper.toItemResponse(itemRepository.save(itemModified));
+        Item saved = itemRepository.save(itemModified);
+        itemSearchIndex.index(saved);
+        itemRequestFeed.putItem(saved);
+        return itemMapper.toItemResponse(saved);
     }
 
     @Override
     @Transactional
     public ItemResponse update(Long userId, Long itemId, ItemRequest item) {
         Item itemModified = itemRepository.findById(itemId)
-                .map(itemCurrent -> {
-                    User owner = itemCurrent.getOwner();
-                    Item item1 = Item.builder()
-                            .id(itemCurrent.getId())
-                            .name(itemCurrent.getName())
-                            .available(itemCurrent.getAvailable())
-                            .description(itemCurrent.getDescription())
-                            .request(itemCurrent.getRequest())
-                            .owner(User.builder()
-                                    .id(owner.getId())
-                                    .name(owner.getName())
-                                    .email(owner.getEmail())
-                                    .build())
-                            .build();
-                    return item1;
-                })
                 .orElseThrow(() -> new DataNotFoundException(String.format("Item with %s id not found", itemId)));
 
         if (!itemModified.getOwner().getId().equals(userId))
@@ -97,39 +98,62 @@ public class ItemServiceImpl implements ItemService {
             itemModified.setDescription(item.getDescription());
         if (item.getAvailable() != null)
             itemModified.setAvailable(item.getAvailable());
-        return itemMapper.toItemResponse(itemRepository.save(itemModified));
+        Item saved = itemRepository.save(itemModified);
+        itemSearchIndex.index(saved);
+        itemRequestFeed.putItem(saved);
+        itemDetailCache.invalidate(itemId);
+        return itemMapper.toItemResponse(saved);
     }
 
     @Override
     public Boolean remove(Long itemId) {
-        itemRepository.findById(itemId)
+        Item item = itemRepository.findById(itemId)
                 .orElseThrow(() -> new DataNotFoundException(String.format("Item with %s id not found", itemId)));
         itemRepository.deleteById(itemId);
+        itemSearchIndex.remove(itemId);
+        itemDetailCache.invalidate(itemId);
+        itemRequestFeed.removeItem(item);
         return true;
     }
 
     @Override
-    @Transactional
     public ItemResponse get(Long itemId, Long userId) {
+        ItemResponse cached = itemDetailCache.get(itemId, userId);
+        if (cached != null)
+            return cached;
+        long generation = itemDetailCache.generation();
+
         Item item = itemRepository.findById(itemId)
                 .orElseThrow(() -> new DataNotFoundException("Вещь не найдена с id " + itemId));
+        Long ownerId = item.getOwner().getId();
         ItemResponse itemResponse = itemMapper.toItemResponse(item);
         itemResponse.setComments(commentRepository.findAllByItemId(itemId).stream()
                 .map(commentMapper::toCommentResponse).collect(Collectors.toList()));
 
-        if (item.getOwner().getId().equals(userId)) {
-            List<Booking> lastBookings = bookingRepository.findAllByItemIdAndStartBefore(itemId, LocalDateTime.now(), sortByStartDesc);
-            if (!lastBookings.isEmpty()) {
-                itemResponse.setLastBooking(bookingMapper.toBookingShortDtoFromBooking(lastBookings.get(0)));
-            }
+        if (!ownerId.equals(userId)) {
+            itemDetailCache.putPublicView(itemId, ownerId, itemResponse, generation);
+            return itemResponse;
+        }
 
-            if (itemResponse.getLastBooking() != null) {
-                List<Booking> nextBookings = bookingRepository.findAllByItemIdAndStartAfter(itemId, LocalDateTime.now(), sortByStartAsc);
-                if (!nextBookings.isEmpty()) {
-                    itemResponse.setNextBooking(bookingMapper.toBookingShortDtoFromBooking(nextBookings.get(0)));
-                }
+        LocalDateTime now = LocalDateTime.now();
+        BookingShortDto lastBooking = null;
+        BookingShortDto nextBooking = null;
+        for (BookingShortDto booking : bookingRepository.findLastAndNextBookingsByItemId(itemId, now)) {
+            if (booking.getStart().isBefore(now)) {
+                if (lastBooking == null)
+                    lastBooking = booking;
+            } else if (nextBooking == null) {
+                nextBooking = booking;
             }
         }
+        lastBooking = latest(lastBooking, archivedBookingRepository.findLastBookingsByItemIdIn(List.of(itemId)).stream()
+                .findFirst()
+                .orElse(null));
+        itemResponse.setLastBooking(lastBooking);
+        if (lastBooking != null)
+            itemResponse.setNextBooking(nextBooking);
+        itemDetailCache.putOwnerView(itemId, ownerId, itemResponse,
+                nextBooking != null ? nextBooking.getStart() : null, generation);
         return itemResponse;
     }
 
@@ -139,31 +163,14 @@ public class ItemServiceImpl implements ItemService {
         Pageable page = PageRequest.of(pageNumber, size, Sort.by(Sort.Direction.ASC, "id"));
 
         List<Item> items = itemRepository.findAllByOwnerId(userId, page).getContent();
-        List<ItemResponse> itemDtos = items.stream().map(itemMapper::toItemResponse).collect(Collectors.toList());
-        List<Long> itemIds = itemDtos.stream().map(ItemResponse::getId).collect(Collectors.toList());
-
-        List<Booking> lastBookings = bookingRepository
-                .findAllByItemIdInAndStartBefore(itemIds, LocalDateTime.now(), sortByItemAndStartAsc);
-
-        Map<Long, List<Booking>> itemToBooking = lastBookings.stream()
-                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
-
-        itemDtos.forEach(itemDto -> {
-            List<Booking> bookings = itemToBooking.get(itemDto.getId());
-            if (bookings != null && !bookings.isEmpty()) {
-                itemDto.setLastBooking(bookingMapper.toBookingShortDtoFromBooking(bookings.get(0)));
-
-                List<Booking> nextBooking = bookingRepository
-                        .findAllByItemIdAndStartAfter(itemDto.getId(), bookings.get(0).getStart(), sortByStartAsc);
-                if (!nextBooking.isEmpty()) {
-                    itemDto.setNextBooking(bookingMapper.toBookingShortDtoFromBooking(nextBooking.get(0)));
-                }
-            }
-            itemDto.setComments(commentRepository.findAllByItemId(itemDto.getId()).stream()
-                    .map(commentMapper::toCommentResponse).collect(Collectors.toList()));
-        });
+        return withBookingsAndComments(items);
+    }
 
-        return itemDtos;
+    @Override
+    public List<ItemResponse> getAllByUserAfter(Long userId, String after, Integer size) {
+        Pageable page = PageRequest.of(0, size, Sort.by(Sort.Direction.ASC, "id"));
+        List<Item> items = itemRepository.findAllByOwnerIdAndIdGreaterThan(userId, PageCursor.decode(after).getId(), page);
+        return withBookingsAndComments(items);
     }
 
     @Override
@@ -176,7 +183,7 @@ public class ItemServiceImpl implements ItemService {
     @Override
     public CommentResponse createComment(Long userId, Long itemId, CommentRequest commentDto) {
 
-        User user = userRepository.findById(userId)
+        User user = userCache.find(userId)
                 .orElseThrow(() -> new DataNotFoundException("Пользователь с таким id не найден: " + commentDto.getAuthorId()));
 
         Item item = itemRepository.findById(itemId)
@@ -185,7 +192,8 @@ public class ItemServiceImpl implements ItemService {
         List<Booking> bookings = bookingRepository
                 .findAllByBookerIdAndItemIdAndStatusEqualsAndEndIsBefore(user.getId(), item.getId(), BookingStatus.APPROVED, LocalDateTime.now());
 
-        if (bookings.isEmpty()) {
+        if (bookings.isEmpty() && !archivedBookingRepository.existsByBookerIdAndItemIdAndStatusAndEndBefore(user.getId(),
+                item.getId(), BookingStatus.APPROVED, LocalDateTime.now())) {
             throw new NotCorrectRequestException("У данного пользователя нет бронирований этой вещи");
         }
 
@@ -194,14 +202,102 @@ public class ItemServiceImpl implements ItemService {
         comment.setAuthor(user);
         comment.setCreated(LocalDateTime.now());
 
-        return commentMapper.toCommentResponse(commentRepository.save(comment));
+        CommentResponse commentResponse = commentMapper.toCommentResponse(commentRepository.save(comment));
+        itemDetailCache.invalidate(itemId);
+        return commentResponse;
+    }
+
+    @Override
+    public List<ItemResponse> searchItemAfter(String name, String after, Integer size) {
+        if (name.isEmpty())
+            return itemMapper.toItemResponseOfList(new ArrayList<>());
+        return itemMapper.toItemResponseOfList(loadInOrder(itemSearchIndex.searchAfter(name, PageCursor.decode(after).getId(), size)));
     }
 
     public List<ItemResponse> searchItemWithPage(String name, Pageable page) {
-        List<Item> items = new ArrayList<>();
         if (name.isEmpty())
-            return itemMapper.toItemResponseOfList(items);
-        items = itemRepository.search(name, page).getContent();
-        return itemMapper.toItemResponseOfList(items);
+            return itemMapper.toItemResponseOfList(new ArrayList<>());
+        return itemMapper.toItemResponseOfList(loadInOrder(itemSearchIndex.search(name, (int) page.getOffset(), page.getPageSize())));
+    }
+
+    @Override
+    public List<AvailabilityWindow> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!to.isAfter(from))
+            throw new NotCorrectRequestException("Не верно указан период");
+        if (!itemRepository.existsById(itemId))
+            throw new DataNotFoundException("Вещь с таким id не найдена: " + itemId);
+        LocalDateTime now = LocalDateTime.now();
+        if (!to.isAfter(now))
+            return new ArrayList<>();
+        return bookingIntervalIndex.freeWindows(itemId, from.isBefore(now) ? now : from, to);
+    }
+
+    @Override
+    public List<ItemAvailability> getAvailability(AvailabilityRequest request) {
+        if (request.getStart() == null || request.getEnd() == null || !request.getEnd().isAfter(request.getStart()))
+            throw new NotCorrectRequestException("Не верно указан период");
+        if (request.getItemIds() == null || request.getItemIds().isEmpty())
+            return new ArrayList<>();
+        List<Long> itemIds = request.getItemIds().stream().distinct().collect(Collectors.toList());
+        Set<Long> booked = new HashSet<>(bookingRepository.findBookedItemIds(itemIds,
+                List.of(BookingStatus.WAITING, BookingStatus.APPROVED), request.getStart(), request.getEnd()));
+        return itemIds.stream()
+                .map(itemId -> new ItemAvailability(itemId, !booked.contains(itemId)))
+                .collect(Collectors.toList());
+    }
+
+    private List<Item> loadInOrder(List<Long> itemIds) {
+        List<Item> items = new ArrayList<>();
+        if (!itemIds.isEmpty()) {
+            Map<Long, Item> itemsById = itemRepository.findAllById(itemIds).stream()
+                    .collect(Collectors.toMap(Item::getId, Function.identity()));
+            itemIds.stream()
+                    .map(itemsById::get)
+                    .filter(Objects::nonNull)
+                    .forEach(items::add);
+        }
+        return items;
+    }
+
+    private List<ItemResponse> withBookingsAndComments(List<Item> items) {
+        List<ItemResponse> itemDtos = items.stream().map(itemMapper::toItemResponse).collect(Collectors.toList());
+        List<Long> itemIds = itemDtos.stream().map(ItemResponse::getId).collect(Collectors.toList());
+
+        if (itemIds.isEmpty())
+            return itemDtos;
+
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, Booking> lastBookings = bookingRepository.findLastBookingsByItemIdIn(itemIds, now).stream()
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(), Function.identity(),
+                        (first, second) -> first.getId() < second.getId() ? first : second));
+        Map<Long, Booking> nextBookings = bookingRepository.findNextBookingsByItemIdIn(itemIds, now).stream()
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(), Function.identity(),
+                        (first, second) -> first.getId() < second.getId() ? first : second));
+        Map<Long, BookingShortDto> archivedLastBookings = archivedBookingRepository.findLastBookingsByItemIdIn(itemIds).stream()
+                .collect(Collectors.toMap(BookingShortDto::getItemId, Function.identity(), (first, second) -> first));
+        Map<Long, List<CommentResponse>> itemToComments = commentRepository.findAllByItemIdIn(itemIds).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(commentMapper::toCommentResponse, Collectors.toList())));
+
+        itemDtos.forEach(itemDto -> {
+            Booking lastBooking = lastBookings.get(itemDto.getId());
+            itemDto.setLastBooking(latest(lastBooking != null ? bookingMapper.toBookingShortDtoFromBooking(lastBooking) : null,
+                    archivedLastBookings.get(itemDto.getId())));
+            Booking nextBooking = nextBookings.get(itemDto.getId());
+            if (itemDto.getLastBooking() != null && nextBooking != null) {
+                itemDto.setNextBooking(bookingMapper.toBookingShortDtoFromBooking(nextBooking));
+            }
+            itemDto.setComments(itemToComments.getOrDefault(itemDto.getId(), new ArrayList<>()));
+        });
+
+        return itemDtos;
+    }
+
+    private static BookingShortDto latest(BookingShortDto hot, BookingShortDto archived) {
+        if (hot == null)
+            return archived;
+        if (archived == null)
+            return hot;
+        return archived.getStart().isAfter(hot.getStart()) ? archived : hot;
     }
 }
@@ -2,6 +2,7 @@ package ru.practicum.shareit.request.controller;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -13,6 +14,7 @@ import org.springframework.web.bind.annotation.RestController;
 import ru.practicum.shareit.request.controller.dto.ItemRequestDto;
 import ru.practicum.shareit.request.controller.dto.ItemRequestDtoWithItems;
 import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.util.PageCursor;
 
 import java.util.List;
 
@@ -45,10 +47,14 @@ public class ItemRequestController {
     }
 
     @GetMapping("/all")
-    public List<ItemRequestDtoWithItems> getItemRequests(@RequestHeader(header) long userId,
-                                                         @RequestParam(name = "from") Integer from,
-                                                         @RequestParam(name = "size") Integer size) {
+    public ResponseEntity<List<ItemRequestDtoWithItems>> getItemRequests(@RequestHeader(header) long userId,
+                                                                         @RequestParam(name = "from") Integer from,
+                                                                         @RequestParam(name = "size") Integer size,
+                                                                         @RequestParam(name = "after", required = false) String after) {
         log.info("Request for get {} requests for items from {} request", size, from);
-        return requestService.getItemRequests(userId, from, size);
+        List<ItemRequestDtoWithItems> requests = after == null
+                ? requestService.getItemRequests(userId, from, size)
+                : requestService.getItemRequestsAfter(userId, after, size);
+        return PageCursor.withNextCursor(requests, size, request -> PageCursor.of(request.getId()));
     }
 }
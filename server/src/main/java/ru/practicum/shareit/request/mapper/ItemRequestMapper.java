@@ -21,6 +21,7 @@ public interface ItemRequestMapper {
     ItemRequest toItemRequest(ItemRequestDto itemRequestDto);
 
     @Mapping(source = "requester.id", target = "userId")
+    @Mapping(target = "matchedItemIds", ignore = true)
     ItemRequestDto toItemRequestDto(ItemRequest itemRequest);
 
     List<ItemRequestDto> toItemRequestList(List<ItemRequest> itemRequests);
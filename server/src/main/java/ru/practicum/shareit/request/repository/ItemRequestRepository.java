@@ -1,10 +1,11 @@
 package ru.practicum.shareit.request.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.request.model.ItemRequest;
 
 import java.util.List;
@@ -12,9 +13,17 @@ import java.util.List;
 @Repository
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
+    @Query("SELECT r FROM ItemRequest r WHERE r.requester.id = :requesterId")
     List<ItemRequest> findByRequesterId(Long requesterId, Sort sort);
 
+    @Query("SELECT r FROM ItemRequest r WHERE r.requester.id <> :requesterId")
     List<ItemRequest> findByRequesterIdNot(Long requesterId, Sort sort);
 
-    Page<ItemRequest> findByRequesterIdNot(Long requesterId, Pageable page);
+    @Query("SELECT r FROM ItemRequest r WHERE r.requester.id <> :requesterId")
+    Slice<ItemRequest> findByRequesterIdNot(Long requesterId, Pageable page);
+
+    @Query("SELECT r FROM ItemRequest r WHERE r.requester.id <> :requesterId AND r.id < :id")
+    List<ItemRequest> findByRequesterIdNotAndIdLessThan(Long requesterId, Long id, Pageable page);
+
+    Slice<ItemRequest> findAllBy(Pageable page);
 }
@@ -0,0 +1,206 @@
+package ru.practicum.shareit.request.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.controller.dto.ItemResponse;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.controller.dto.ItemRequestDtoWithItems;
+import ru.practicum.shareit.request.mapper.ItemRequestMapper;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.util.Transactions;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+public class ItemRequestFeed {
+
+    private final int capacity;
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemRepository itemRepository;
+    private final ItemRequestMapper mapper;
+
+    private final NavigableMap<Long, Entry> entries = new TreeMap<>(Comparator.reverseOrder());
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private boolean loaded;
+    private boolean complete;
+
+    public ItemRequestFeed(@Value("${shareit.request-feed.capacity:1000}") int capacity,
+                           ItemRequestRepository itemRequestRepository,
+                           ItemRepository itemRepository,
+                           ItemRequestMapper mapper) {
+        this.capacity = capacity;
+        this.itemRequestRepository = itemRequestRepository;
+        this.itemRepository = itemRepository;
+        this.mapper = mapper;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            List<ItemRequest> newest = itemRequestRepository.findAllBy(
+                    PageRequest.of(0, capacity + 1, Sort.by(Sort.Direction.DESC, "id"))).getContent();
+            complete = newest.size() <= capacity;
+            List<ItemRequest> kept = newest.subList(0, Math.min(newest.size(), capacity));
+            for (ItemRequest itemRequest : kept) {
+                entries.put(itemRequest.getId(), new Entry(itemRequest));
+            }
+            if (!kept.isEmpty()) {
+                List<Long> requestIds = kept.stream().map(ItemRequest::getId).collect(Collectors.toList());
+                for (Item item : itemRepository.findAllByRequestIdIn(requestIds)) {
+                    entries.get(item.getRequest().getId()).put(mapper.toItemResponse(item));
+                }
+            }
+            loaded = true;
+            log.info("Item request feed built for {} requests", entries.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Optional<List<ItemRequestDtoWithItems>> page(Long userId, Long beforeId, int from, int size) {
+        lock.readLock().lock();
+        try {
+            if (!loaded) {
+                return Optional.empty();
+            }
+            List<ItemRequestDtoWithItems> page = new ArrayList<>();
+            int skipped = 0;
+            for (Entry entry : entries.tailMap(beforeId, false).values()) {
+                if (entry.requesterId.equals(userId)) {
+                    continue;
+                }
+                if (skipped < from) {
+                    skipped++;
+                    continue;
+                }
+                page.add(entry.toDto());
+                if (page.size() == size) {
+                    return Optional.of(page);
+                }
+            }
+            return complete ? Optional.of(page) : Optional.empty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void add(ItemRequest itemRequest) {
+        Entry entry = new Entry(itemRequest);
+        Transactions.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                if (!loaded) {
+                    return;
+                }
+                entries.put(entry.id, entry);
+                if (entries.size() > capacity) {
+                    entries.pollLastEntry();
+                    complete = false;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void putItem(Item item) {
+        if (item.getRequest() == null) {
+            return;
+        }
+        Long requestId = item.getRequest().getId();
+        ItemResponse itemResponse = mapper.toItemResponse(item);
+        Transactions.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                Entry entry = entries.get(requestId);
+                if (entry != null) {
+                    entry.put(itemResponse);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void removeItem(Item item) {
+        if (item.getRequest() == null) {
+            return;
+        }
+        Long requestId = item.getRequest().getId();
+        Long itemId = item.getId();
+        Transactions.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                Entry entry = entries.get(requestId);
+                if (entry != null) {
+                    entry.items.remove(itemId);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void removeRequester(Long userId) {
+        Transactions.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                entries.values().removeIf(entry -> entry.requesterId.equals(userId));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static class Entry {
+        private final Long id;
+        private final String description;
+        private final Long requesterId;
+        private final LocalDateTime creationDate;
+        private final Map<Long, ItemResponse> items = new TreeMap<>();
+
+        private Entry(ItemRequest itemRequest) {
+            this.id = itemRequest.getId();
+            this.description = itemRequest.getDescription();
+            this.requesterId = itemRequest.getRequester().getId();
+            this.creationDate = itemRequest.getCreationDate();
+        }
+
+        private void put(ItemResponse item) {
+            items.put(item.getId(), item);
+        }
+
+        private ItemRequestDtoWithItems toDto() {
+            return new ItemRequestDtoWithItems(id, description, requesterId, creationDate, new ArrayList<>(items.values()));
+        }
+    }
+}
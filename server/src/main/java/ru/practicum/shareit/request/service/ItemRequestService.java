@@ -13,4 +13,6 @@ public interface ItemRequestService {
     List<ItemRequestDtoWithItems> getItemRequestsByRequestorId(Long userId);
 
     List<ItemRequestDtoWithItems> getItemRequests(Long userId, Integer from, Integer size);
+
+    List<ItemRequestDtoWithItems> getItemRequestsAfter(Long userId, String after, Integer size);
 }
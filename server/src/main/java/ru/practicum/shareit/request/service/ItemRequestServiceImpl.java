@@ -2,13 +2,12 @@ package ru.practicum.shareit.request.service;
 
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.DataNotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemSearchIndex;
 import ru.practicum.shareit.request.controller.dto.ItemRequestDto;
 import ru.practicum.shareit.request.controller.dto.ItemRequestDtoWithItems;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
@@ -16,10 +15,12 @@ import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.PageCursor;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,11 +31,14 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRequestRepository itemRequestRepository;
     private final UserService userService;
     private final ItemRequestMapper mapper;
+    private final ItemRequestFeed itemRequestFeed;
+    private final ItemSearchIndex itemSearchIndex;
+
+    private static final int MATCH_LIMIT = 10;
 
     private final Sort sortCreatedByDesc = Sort.by(Sort.Direction.DESC, "creationDate");
 
     @Override
-    @Transactional
     public ItemRequestDto createItemRequest(Long requesterId, ItemRequestDto itemRequestDto) {
         userService.get(requesterId);
         ItemRequest itemRequest = mapper.toItemRequest(itemRequestDto);
@@ -42,7 +46,11 @@ public class ItemRequestServiceImpl implements ItemRequestService {
                 .id(requesterId)
                 .build());
         itemRequest.setCreationDate(LocalDateTime.now());
-        return mapper.toItemRequestDto(itemRequestRepository.save(itemRequest));
+        ItemRequest saved = itemRequestRepository.save(itemRequest);
+        itemRequestFeed.add(saved);
+        ItemRequestDto created = mapper.toItemRequestDto(saved);
+        created.setMatchedItemIds(itemSearchIndex.rank(saved.getDescription(), requesterId, MATCH_LIMIT));
+        return created;
     }
 
     @Override
@@ -50,31 +58,41 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         userService.get(requesterId);
         ItemRequest itemRequest = itemRequestRepository.findById(itemRequestId)
                 .orElseThrow(() -> new DataNotFoundException("ItemRequest not found with id " + itemRequestId));
-        List<Item> items = itemRepository.findByRequestRequesterId(itemRequest.getRequester().getId());
-        return mapper.toItemRequestDtoWithItems(itemRequest, items);
+        return withItems(List.of(itemRequest)).get(0);
     }
 
     @Override
     public List<ItemRequestDtoWithItems> getItemRequestsByRequestorId(Long requesterId) {
         userService.get(requesterId);
         List<ItemRequest> itemRequests = itemRequestRepository.findByRequesterId(requesterId, sortCreatedByDesc);
-        List<ItemRequestDtoWithItems> itemRequestDtoWithItemsList = new ArrayList<>();
-        for (ItemRequest itemRequest : itemRequests) {
-            List<Item> items = itemRepository.findByRequestRequesterId(itemRequest.getRequester().getId());
-            ItemRequestDtoWithItems itemRequestDtoWithItems = mapper.toItemRequestDtoWithItems(itemRequest, items);
-            itemRequestDtoWithItemsList.add(itemRequestDtoWithItems);
-        }
-        return itemRequestDtoWithItemsList;
+        return withItems(itemRequests);
     }
 
     @Override
     public List<ItemRequestDtoWithItems> getItemRequests(Long requesterId, Integer from, Integer size) {
             int pageNumber = from / size;
-            Pageable page = PageRequest.of(pageNumber, size, Sort.by(Sort.Direction.DESC, "id"));
-            return itemRequestRepository.findByRequesterIdNot(requesterId, page)
-                    .stream()
-                    .map(itemRequest -> mapper.toItemRequestDtoWithItems(itemRequest,
-                            itemRepository.findByRequestRequesterId(itemRequest.getRequester().getId())))
-                    .collect(Collectors.toList());
+            return itemRequestFeed.page(requesterId, Long.MAX_VALUE, pageNumber * size, size)
+                    .orElseGet(() -> withItems(itemRequestRepository.findByRequesterIdNot(requesterId,
+                            PageRequest.of(pageNumber, size, Sort.by(Sort.Direction.DESC, "id"))).getContent()));
+    }
+
+    @Override
+    public List<ItemRequestDtoWithItems> getItemRequestsAfter(Long requesterId, String after, Integer size) {
+        Long beforeId = PageCursor.decode(after).getId();
+        return itemRequestFeed.page(requesterId, beforeId, 0, size)
+                .orElseGet(() -> withItems(itemRequestRepository.findByRequesterIdNotAndIdLessThan(requesterId, beforeId,
+                        PageRequest.of(0, size, Sort.by(Sort.Direction.DESC, "id")))));
+    }
+
+    private List<ItemRequestDtoWithItems> withItems(List<ItemRequest> itemRequests) {
+        if (itemRequests.isEmpty())
+            return new ArrayList<>();
+        List<Long> requestIds = itemRequests.stream().map(ItemRequest::getId).collect(Collectors.toList());
+        Map<Long, List<Item>> itemsByRequest = itemRepository.findAllByRequestIdIn(requestIds).stream()
+                .collect(Collectors.groupingBy(item -> item.getRequest().getId()));
+        return itemRequests.stream()
+                .map(itemRequest -> mapper.toItemRequestDtoWithItems(itemRequest,
+                        itemsByRequest.getOrDefault(itemRequest.getId(), new ArrayList<>())))
+                .collect(Collectors.toList());
     }
 }
@@ -0,0 +1,106 @@
+package ru.practicum.shareit.user.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.Transactions;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class UserCache {
+
+    private static final String CACHE_NAME = "users";
+    private static final long EMPTY = 0L;
+
+    private final UserRepository userRepository;
+    private final int mask;
+    private final long[] ids;
+    private final String[] names;
+    private final String[] emails;
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private int size;
+
+    public UserCache(@Value("${shareit.user-cache.capacity:65536}") int capacity,
+                     UserRepository userRepository,
+                     MeterRegistry meterRegistry) {
+        int slots = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.userRepository = userRepository;
+        this.mask = slots - 1;
+        this.ids = new long[slots];
+        this.names = new String[slots];
+        this.emails = new String[slots];
+        FunctionCounter.builder("cache.gets", hits, AtomicLong::get)
+                .tags("cache", CACHE_NAME, "result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.gets", misses, AtomicLong::get)
+                .tags("cache", CACHE_NAME, "result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("cache.size", this, UserCache::size)
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+    }
+
+    public Optional<User> find(long userId) {
+        synchronized (this) {
+            int slot = slot(userId);
+            if (ids[slot] == userId && userId != EMPTY) {
+                hits.incrementAndGet();
+                return Optional.of(new User(userId, names[slot], emails[slot]));
+            }
+        }
+        misses.incrementAndGet();
+        long loadedAtGeneration = generation.get();
+        Optional<User> user = userRepository.findById(userId);
+        user.ifPresent(loaded -> put(loaded, loadedAtGeneration));
+        return user.map(loaded -> new User(loaded.getId(), loaded.getName(), loaded.getEmail()));
+    }
+
+    public void evict(long userId) {
+        Transactions.afterCommit(() -> {
+            synchronized (this) {
+                generation.incrementAndGet();
+                int slot = slot(userId);
+                if (ids[slot] == userId) {
+                    clear(slot);
+                }
+            }
+        });
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private synchronized void put(User user, long loadedAtGeneration) {
+        if (loadedAtGeneration != generation.get() || user.getId() == EMPTY) {
+            return;
+        }
+        int slot = slot(user.getId());
+        if (ids[slot] == EMPTY) {
+            size++;
+        }
+        ids[slot] = user.getId();
+        names[slot] = user.getName();
+        emails[slot] = user.getEmail();
+    }
+
+    private void clear(int slot) {
+        ids[slot] = EMPTY;
+        names[slot] = null;
+        emails[slot] = null;
+        size--;
+    }
+
+    private int slot(long userId) {
+        long hash = userId * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
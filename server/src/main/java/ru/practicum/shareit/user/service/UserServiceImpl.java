@@ -4,6 +4,9 @@ import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.DataNotFoundException;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.service.ItemDetailCache;
+import ru.practicum.shareit.request.service.ItemRequestFeed;
 import ru.practicum.shareit.user.controller.dto.UserRequest;
 import ru.practicum.shareit.user.controller.dto.UserResponse;
 import ru.practicum.shareit.user.mapper.UserMapper;
@@ -18,6 +21,10 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository repository;
     private final UserMapper mapper;
+    private final ItemDetailCache itemDetailCache;
+    private final ItemRequestFeed itemRequestFeed;
+    private final UserCache userCache;
+    private final CommentRepository commentRepository;
 
     @Override
     @Transactional
@@ -39,7 +46,13 @@ public class UserServiceImpl implements UserService {
         if (user.getEmail() != null) {
             userModified.setEmail(user.getEmail());
         }
-        return mapper.toUserResponse(repository.save(userModified));
+        User saved = repository.save(userModified);
+        userCache.evict(userId);
+        if (user.getName() != null) {
+            itemDetailCache.invalidateOwner(userId);
+            commentRepository.findItemIdsByAuthorId(userId).forEach(itemDetailCache::invalidate);
+        }
+        return mapper.toUserResponse(saved);
     }
 
     @Override
@@ -48,6 +61,8 @@ public class UserServiceImpl implements UserService {
         repository.findById(userId)
                 .orElseThrow(() -> new DataNotFoundException("User with id not found: " + userId));
         repository.deleteById(userId);
+        userCache.evict(userId);
+        itemRequestFeed.removeRequester(userId);
     }
 
     @Override
@@ -57,7 +72,7 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public UserResponse get(Long id) {
-        return mapper.toUserResponse(repository.findById(id)
+        return mapper.toUserResponse(userCache.find(id)
                 .orElseThrow(() -> new DataNotFoundException("User with id not found: " + id)));
     }
 }
@@ -0,0 +1,11 @@
+create INDEX IF NOT EXISTS ix_bookings_booker_start ON bookings (booker_id, start_date DESC, id DESC);
+
+create INDEX IF NOT EXISTS ix_bookings_item_start ON bookings (item_id, start_date DESC, id DESC);
+
+create INDEX IF NOT EXISTS ix_items_owner ON items (owner_id, id);
+
+create INDEX IF NOT EXISTS ix_items_request ON items (request_id);
+
+create INDEX IF NOT EXISTS ix_comments_item ON comments (item_id);
+
+create INDEX IF NOT EXISTS ix_requests_requester ON requests (requester_id, id DESC);
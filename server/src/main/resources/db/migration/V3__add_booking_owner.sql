@@ -0,0 +1,7 @@
+alter table bookings ADD COLUMN IF NOT EXISTS owner_id int REFERENCES users (id) ON delete RESTRICT;
+
+update bookings b SET owner_id = (SELECT i.owner_id FROM items i WHERE i.id = b.item_id) WHERE b.owner_id IS NULL;
+
+alter table bookings ALTER COLUMN owner_id SET NOT NULL;
+
+create INDEX IF NOT EXISTS ix_bookings_owner_start ON bookings (owner_id, start_date DESC, id DESC);
@@ -0,0 +1,19 @@
+create TABLE IF NOT EXISTS bookings_archive
+(
+    id         int                         NOT NULL,
+    start_date timestamp WITHOUT TIME ZONE NOT NULL,
+    end_date   timestamp WITHOUT TIME ZONE NOT NULL,
+    item_id    int REFERENCES items (id) ON delete RESTRICT,
+    booker_id  int REFERENCES users (id) ON delete RESTRICT,
+    status     varchar(100),
+    owner_id   int                         NOT NULL REFERENCES users (id) ON delete RESTRICT,
+    CONSTRAINT pk_booking_archive PRIMARY KEY (id)
+);
+
+create INDEX IF NOT EXISTS ix_bookings_archive_booker_start ON bookings_archive (booker_id, start_date DESC, id DESC);
+
+create INDEX IF NOT EXISTS ix_bookings_archive_owner_start ON bookings_archive (owner_id, start_date DESC, id DESC);
+
+create INDEX IF NOT EXISTS ix_bookings_archive_item_start ON bookings_archive (item_id, start_date DESC, id DESC);
+
+create INDEX IF NOT EXISTS ix_bookings_end ON bookings (end_date);
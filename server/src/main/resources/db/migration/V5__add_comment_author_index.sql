@@ -0,0 +1 @@
+create INDEX IF NOT EXISTS ix_comments_author ON comments (author_id, item_id);
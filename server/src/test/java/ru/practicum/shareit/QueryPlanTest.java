@@ -0,0 +1,271 @@
+package ru.practicum.shareit;
+
+import org.assertj.core.api.SoftAssertions;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.util.PageCursor;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class QueryPlanTest {
+
+    private static final int USERS = 50;
+    private static final int ITEMS_PER_USER = 4;
+    private static final int BOOKINGS_PER_ITEM = 5;
+
+    private static final String EXPECTED_SCAN = "tableScan";
+
+    private static final List<BookingStatus> BLOCKING = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SqlCapture sqlCapture;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ArchivedBookingRepository archivedBookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    private LocalDateTime now;
+
+    @BeforeEach
+    void seed() {
+        now = LocalDateTime.now();
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> requests = new ArrayList<>();
+        List<Object[]> items = new ArrayList<>();
+        List<Object[]> bookings = new ArrayList<>();
+        List<Object[]> comments = new ArrayList<>();
+        for (int user = 1; user <= USERS; user++) {
+            users.add(new Object[]{user, "User" + user, "user" + user + "@example.com"});
+            requests.add(new Object[]{user, "Request" + user, user, Timestamp.valueOf(now.minusDays(user))});
+        }
+        int item = 0;
+        int booking = 0;
+        for (int owner = 1; owner <= USERS; owner++) {
+            for (int i = 0; i < ITEMS_PER_USER; i++) {
+                item++;
+                items.add(new Object[]{item, "Item" + item, "Description" + item, true, owner, item % 3 == 0 ? owner % USERS + 1 : null});
+                comments.add(new Object[]{item, "Comment" + item, item, owner % USERS + 1, Timestamp.valueOf(now)});
+                for (int b = 0; b < BOOKINGS_PER_ITEM; b++) {
+                    booking++;
+                    LocalDateTime start = now.plusDays(b * 3L - 6);
+                    bookings.add(new Object[]{booking, Timestamp.valueOf(start), Timestamp.valueOf(start.plusDays(2)), item,
+                            (owner + b) % USERS + 1, b % 2 == 0 ? "APPROVED" : "WAITING", owner});
+                }
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, name, email) VALUES (?, ?, ?)", users);
+        jdbcTemplate.batchUpdate("INSERT INTO requests (id, description, requester_id, creation_date) VALUES (?, ?, ?, ?)", requests);
+        jdbcTemplate.batchUpdate("INSERT INTO items (id, name, description, is_available, owner_id, request_id) VALUES (?, ?, ?, ?, ?, ?)", items);
+        jdbcTemplate.batchUpdate("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status, owner_id) VALUES (?, ?, ?, ?, ?, ?, ?)", bookings);
+        jdbcTemplate.update("INSERT INTO bookings_archive (id, start_date, end_date, item_id, booker_id, status, owner_id) " +
+                "SELECT id + 100000, start_date - INTERVAL '400' DAY, end_date - INTERVAL '400' DAY, item_id, booker_id, status, owner_id FROM bookings");
+        jdbcTemplate.batchUpdate("INSERT INTO comments (id, text, item_id, author_id, created_time) VALUES (?, ?, ?, ?, ?)", comments);
+        sqlCapture.clear();
+    }
+
+    @Test
+    void testBookerPageUsesBookerIndexes() {
+        bookingRepository.findPage(BookingRole.BOOKER, 7L, BookingState.ALL, now, 0, 10);
+        bookingRepository.findPageAfter(BookingRole.BOOKER, 7L, BookingState.CURRENT, now, PageCursor.of(now, 500L), 10);
+
+        assertIndexed("BOOKER_ID = 7", "BOOKER_ID = 7", "BOOKER_ID = 7");
+    }
+
+    @Test
+    void testOwnerPageUsesOwnerIndexes() {
+        bookingRepository.findPage(BookingRole.OWNER, 7L, BookingState.PAST, now, 0, 10);
+        bookingRepository.findPageAfter(BookingRole.OWNER, 7L, BookingState.WAITING, now, PageCursor.of(now, 500L), 10);
+
+        assertIndexed("OWNER_ID = 7", "OWNER_ID = 7", "OWNER_ID = 7");
+    }
+
+    @Test
+    void testLastAndNextBookingsUseItemIndex() {
+        bookingRepository.findLastBookingsByItemIdIn(List.of(3L, 30L, 60L), now);
+        bookingRepository.findNextBookingsByItemIdIn(List.of(3L, 30L, 60L), now);
+        bookingRepository.findLastAndNextBookingsByItemId(30L, now);
+        archivedBookingRepository.findLastBookingsByItemIdIn(List.of(3L, 30L, 60L));
+
+        assertIndexed("ITEM_ID IN", "ITEM_ID IN", "ITEM_ID = ", "ITEM_ID IN");
+    }
+
+    @Test
+    void testAvailabilityQueriesUseItemIndex() {
+        bookingRepository.findBookedItemIds(List.of(3L, 30L, 60L), BLOCKING, now, now.plusDays(1));
+        bookingRepository.findIntervalsByItemId(30L, BLOCKING, now, now.plusDays(30));
+
+        assertIndexed("ITEM_ID IN", "ITEM_ID = ");
+    }
+
+    @Test
+    void testCommentEligibilityQueriesAreIndexed() {
+        bookingRepository.findAllByBookerIdAndItemIdAndStatusEqualsAndEndIsBefore(7L, 30L, BookingStatus.APPROVED, now);
+        archivedBookingRepository.existsByBookerIdAndItemIdAndStatusAndEndBefore(7L, 30L, BookingStatus.APPROVED, now);
+
+        assertIndexed("ITEM_ID = ", "ITEM_ID = ");
+    }
+
+    @Test
+    void testBookingDetailsAreIndexed() {
+        bookingRepository.findDetailsById(42L);
+        archivedBookingRepository.findDetailsById(100042L);
+
+        assertIndexed("ID = \\?1", "ID = \\?1");
+    }
+
+    @Test
+    void testItemRequestAndCommentQueriesAreIndexed() {
+        itemRepository.findAllByOwnerIdAndIdGreaterThan(7L, 0L, PageRequest.of(0, 10, Sort.by("id")));
+        itemRepository.findAllByRequestIdIn(List.of(3L, 4L));
+        commentRepository.findAllByItemIdIn(List.of(3L, 30L, 60L));
+        itemRequestRepository.findByRequesterId(7L, Sort.by(Sort.Direction.DESC, "id"));
+
+        assertIndexed("OWNER_ID = ", "REQUEST_ID IN", "ITEM_ID IN", "REQUESTER_ID = ");
+    }
+
+    @Test
+    void testStatusUpdateSeeksWithoutItems() {
+        bookingRepository.updateStatus(42L, 7L, BookingStatus.WAITING, BookingStatus.APPROVED);
+
+        // Without statistics H2 may drive it from the owner index instead of the primary key, either is a seek.
+        assertIndexed("(ID = \\?2|OWNER_ID = \\?4)");
+        assertThat(sqlCapture.statements().get(0)).doesNotContainIgnoringCase("items");
+    }
+
+    @Test
+    void testRebuildBatchesSeekByPrimaryKey() {
+        bookingRepository.findActiveIntervals(BLOCKING, now, 500L, PageRequest.of(0, 10, Sort.by("id")));
+        itemRepository.findAllByIdGreaterThan(100L, PageRequest.of(0, 10, Sort.by("id")));
+        itemRequestRepository.findByRequesterIdNotAndIdLessThan(7L, 30L,
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "id")));
+
+        assertIndexed("ID > \\?4", "ID > \\?1", "ID < \\?2");
+    }
+
+    @Test
+    void testCommentAuthorLookupIsIndexed() {
+        commentRepository.findItemIdsByAuthorId(7L);
+
+        assertIndexed("AUTHOR_ID = ");
+    }
+
+    /**
+     * Newest-first reads with no usable predicate. requester_id <> ? keeps all rows but one requester's, so
+     * no index narrows it; PostgreSQL answers both with a backward primary key scan stopped by the LIMIT,
+     * H2 scans and sorts. findAllBy only runs when the request feed is rebuilt at startup, and the
+     * /requests/all fallback only serves offset pages the in-memory feed cannot; cursor pages seek by id.
+     */
+    @Test
+    void testNewestRequestPagesScan() {
+        itemRequestRepository.findAllBy(PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "id")));
+        itemRequestRepository.findByRequesterIdNot(7L, PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "id")));
+
+        assertIndexed(EXPECTED_SCAN, EXPECTED_SCAN);
+    }
+
+    private void assertIndexed(String... expectedConditions) {
+        List<String> statements = sqlCapture.statements();
+        assertThat(statements).hasSize(expectedConditions.length);
+        SoftAssertions softly = new SoftAssertions();
+        for (int i = 0; i < statements.size(); i++) {
+            String sql = statements.get(i);
+            String plan = explain(sql);
+
+            if (EXPECTED_SCAN.equals(expectedConditions[i])) {
+                softly.assertThat(plan).as(sql).contains(EXPECTED_SCAN);
+                continue;
+            }
+            softly.assertThat(plan).as(sql).doesNotContainIgnoringCase("tableScan");
+            if (expectedConditions[i] != null) {
+                softly.assertThat(plan).as(sql).containsPattern("/\\* PUBLIC\\.\\w+: [^*]*" + expectedConditions[i]);
+            }
+        }
+        softly.assertAll();
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute((Connection connection) -> {
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + sql);
+                 ResultSet rows = explain.executeQuery()) {
+                List<String> lines = new ArrayList<>();
+                while (rows.next()) {
+                    lines.add(rows.getString(1));
+                }
+                return String.join("\n", lines);
+            }
+        });
+    }
+
+    @TestConfiguration
+    static class SqlCaptureConfig {
+        @Bean
+        SqlCapture sqlCapture() {
+            return new SqlCapture();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer sqlCaptureCustomizer(SqlCapture sqlCapture) {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlCapture);
+        }
+    }
+
+    static class SqlCapture implements StatementInspector {
+        private final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+
+        List<String> statements() {
+            return new ArrayList<>(statements);
+        }
+
+        void clear() {
+            statements.clear();
+        }
+    }
+}
@@ -6,11 +6,11 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.controller.dto.BookingItemResponse;
 import ru.practicum.shareit.booking.controller.dto.BookingResponse;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
-import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.controller.dto.UserResponse;
 
 import java.time.LocalDateTime;
 
@@ -35,8 +35,8 @@ public class BookingControllerTest {
                 .id(1L)
                 .start(LocalDateTime.now())
                 .end(LocalDateTime.now().plusHours(1))
-                .item(Item.builder().id(1L).build())
-                .booker(User.builder().id(1L).build())
+                .item(BookingItemResponse.builder().id(1L).build())
+                .booker(UserResponse.builder().id(1L).build())
                 .status(BookingStatus.APPROVED)
                 .build();
 
@@ -58,8 +58,8 @@ public class BookingControllerTest {
                 .id(1L)
                 .start(LocalDateTime.now())
                 .end(LocalDateTime.now().plusHours(1))
-                .item(Item.builder().id(1L).build())
-                .booker(User.builder().id(1L).build())
+                .item(BookingItemResponse.builder().id(1L).build())
+                .booker(UserResponse.builder().id(1L).build())
                 .status(BookingStatus.WAITING)
                 .build();
 
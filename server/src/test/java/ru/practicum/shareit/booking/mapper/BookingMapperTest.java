@@ -9,6 +9,7 @@ import ru.practicum.shareit.booking.controller.dto.BookingRequest;
 import ru.practicum.shareit.booking.controller.dto.BookingResponse;
 import ru.practicum.shareit.booking.controller.dto.BookingShortDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingDetails;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
@@ -70,8 +71,8 @@ class BookingMapperTest {
                 .id(1L)
                 .start(LocalDateTime.now().plusDays(1))
                 .end(LocalDateTime.now().plusDays(2))
-                .item(item)
-                .booker(user)
+                .item(bookingMapper.toBookingItemResponse(item))
+                .booker(bookingMapper.toUserResponse(user))
                 .status(BookingStatus.WAITING)
                 .build();
 
@@ -95,8 +96,10 @@ class BookingMapperTest {
         assertEquals(booking.getId(), mappedBookingResponse.getId());
         assertEquals(booking.getStart(), mappedBookingResponse.getStart());
         assertEquals(booking.getEnd(), mappedBookingResponse.getEnd());
-        assertEquals(booking.getItem(), mappedBookingResponse.getItem());
-        assertEquals(booking.getBooker(), mappedBookingResponse.getBooker());
+        assertEquals(item.getId(), mappedBookingResponse.getItem().getId());
+        assertEquals(item.getName(), mappedBookingResponse.getItem().getName());
+        assertEquals(user.getEmail(), mappedBookingResponse.getItem().getOwner().getEmail());
+        assertEquals(user.getId(), mappedBookingResponse.getBooker().getId());
         assertEquals(booking.getStatus(), mappedBookingResponse.getStatus());
     }
 
@@ -136,8 +139,10 @@ class BookingMapperTest {
         assertEquals(booking.getId(), mappedBookingResponse.getId());
         assertEquals(booking.getStart(), mappedBookingResponse.getStart());
         assertEquals(booking.getEnd(), mappedBookingResponse.getEnd());
-        assertEquals(booking.getItem(), mappedBookingResponse.getItem());
-        assertEquals(booking.getBooker(), mappedBookingResponse.getBooker());
+        assertEquals(item.getId(), mappedBookingResponse.getItem().getId());
+        assertEquals(item.getName(), mappedBookingResponse.getItem().getName());
+        assertEquals(user.getEmail(), mappedBookingResponse.getItem().getOwner().getEmail());
+        assertEquals(user.getId(), mappedBookingResponse.getBooker().getId());
         assertEquals(booking.getStatus(), mappedBookingResponse.getStatus());
     }
 
@@ -148,6 +153,27 @@ class BookingMapperTest {
         assertEquals(null, mappedBookingResponse);
     }
 
+    @Test
+    void testToBookingResponseFromDetails() {
+        BookingDetails details = new BookingDetails(1L, booking.getStart(), booking.getEnd(), BookingStatus.APPROVED,
+                2L, "Drill", "Cordless drill", true,
+                3L, "Owner", "owner@example.com",
+                4L, "Booker", "booker@example.com");
+
+        BookingResponse mappedBookingResponse = bookingMapper.toBookingResponse(details);
+
+        assertEquals(1L, mappedBookingResponse.getId());
+        assertEquals(BookingStatus.APPROVED, mappedBookingResponse.getStatus());
+        assertEquals(2L, mappedBookingResponse.getItem().getId());
+        assertEquals("Drill", mappedBookingResponse.getItem().getName());
+        assertEquals("Cordless drill", mappedBookingResponse.getItem().getDescription());
+        assertEquals(true, mappedBookingResponse.getItem().getAvailable());
+        assertEquals(3L, mappedBookingResponse.getItem().getOwner().getId());
+        assertEquals("owner@example.com", mappedBookingResponse.getItem().getOwner().getEmail());
+        assertEquals(4L, mappedBookingResponse.getBooker().getId());
+        assertEquals("Booker", mappedBookingResponse.getBooker().getName());
+    }
+
     @Test
     void testToBookFromShort() {
         Booking mappedBooking = bookingMapper.toBookFromShort(bookingShortDto);
@@ -1,24 +1,31 @@
 package ru.practicum.shareit.booking.repository;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.controller.dto.BookingShortDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingDetails;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.NotCorrectRequestException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.PageCursor;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 @DataJpaTest
@@ -33,6 +40,9 @@ public class BookingRepositoryTest {
     @Autowired
     private ItemRepository itemRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private User user1;
     private User user2;
     private Item item1;
@@ -48,8 +58,8 @@ public class BookingRepositoryTest {
         item1 = itemRepository.save(new Item(null, "Item1", "Description1", true, user1, null));
         item2 = itemRepository.save(new Item(null, "Item2", "Description2", true, user2, null));
 
-        booking1 = bookingRepository.save(new Booking(null, LocalDateTime.now().minusDays(5), LocalDateTime.now().minusDays(2), item1, user1, BookingStatus.APPROVED));
-        booking2 = bookingRepository.save(new Booking(null, LocalDateTime.now().plusDays(2), LocalDateTime.now().plusDays(4), item2, user2, BookingStatus.WAITING));
+        booking1 = bookingRepository.save(new Booking(null, LocalDateTime.now().minusDays(5), LocalDateTime.now().minusDays(2), item1, user1, BookingStatus.APPROVED, item1.getOwner().getId()));
+        booking2 = bookingRepository.save(new Booking(null, LocalDateTime.now().plusDays(2), LocalDateTime.now().plusDays(4), item2, user2, BookingStatus.WAITING, item2.getOwner().getId()));
     }
 
     @Test
@@ -60,217 +70,174 @@ public class BookingRepositoryTest {
         assertThat(bookings.get(0)).isEqualTo(booking1);
     }
 
-    @Test
-    void testFindAllByBooker() {
-        List<Booking> bookings = bookingRepository.findAllByBooker(user1, Sort.by(Sort.Direction.ASC, "start"));
-
-        assertThat(bookings).hasSize(1);
-        assertThat(bookings.get(0)).isEqualTo(booking1);
-    }
-
-    @Test
-    void testFindAllByBookerAndStartBeforeAndEndAfter() {
-        List<Booking> bookings = bookingRepository.findAllByBookerAndStartBeforeAndEndAfter(user1, LocalDateTime.now().minusDays(4), LocalDateTime.now().minusDays(3), Sort.by(Sort.Direction.ASC, "start"));
-
-        assertThat(bookings).hasSize(1);
-        assertThat(bookings.get(0)).isEqualTo(booking1);
-    }
-
-    @Test
-    void testFindAllByBookerAndEndBefore() {
-        List<Booking> bookings = bookingRepository.findAllByBookerAndEndBefore(user1, LocalDateTime.now(), Sort.by(Sort.Direction.ASC, "end"));
 
-        assertThat(bookings).hasSize(1);
-        assertThat(bookings.get(0)).isEqualTo(booking1);
-    }
 
     @Test
-    void testFindAllByBookerAndStartAfter() {
-        List<Booking> bookings = bookingRepository.findAllByBookerAndStartAfter(user2, LocalDateTime.now(), Sort.by(Sort.Direction.ASC, "start"));
+    void testFindPageByBookerForEveryState() {
+        LocalDateTime now = LocalDateTime.now();
 
-        assertThat(bookings).hasSize(1);
-        assertThat(bookings.get(0)).isEqualTo(booking2);
+        assertThat(bookingRepository.findPage(BookingRole.BOOKER, user1.getId(), BookingState.ALL, now, 0, 10)).containsExactly(booking1);
+        assertThat(bookingRepository.findPage(BookingRole.BOOKER, user1.getId(), BookingState.PAST, now, 0, 10)).containsExactly(booking1);
+        assertThat(bookingRepository.findPage(BookingRole.BOOKER, user1.getId(), BookingState.CURRENT, now.minusDays(3), 0, 10)).containsExactly(booking1);
+        assertThat(bookingRepository.findPage(BookingRole.BOOKER, user1.getId(), BookingState.CURRENT, now, 0, 10)).isEmpty();
+        assertThat(bookingRepository.findPage(BookingRole.BOOKER, user1.getId(), BookingState.FUTURE, now, 0, 10)).isEmpty();
+        assertThat(bookingRepository.findPage(BookingRole.BOOKER, user2.getId(), BookingState.FUTURE, now, 0, 10)).containsExactly(booking2);
+        assertThat(bookingRepository.findPage(BookingRole.BOOKER, user2.getId(), BookingState.WAITING, now, 0, 10)).containsExactly(booking2);
+        assertThat(bookingRepository.findPage(BookingRole.BOOKER, user2.getId(), BookingState.REJECTED, now, 0, 10)).isEmpty();
     }
 
     @Test
-    void testFindAllByBookerAndStatusEquals() {
-        List<Booking> bookings = bookingRepository.findAllByBookerAndStatusEquals(user2, BookingStatus.WAITING, Sort.by(Sort.Direction.ASC, "start"));
+    void testFindPageByOwnerForEveryState() {
+        LocalDateTime now = LocalDateTime.now();
 
-        assertThat(bookings).hasSize(1);
-        assertThat(bookings.get(0)).isEqualTo(booking2);
+        assertThat(bookingRepository.findPage(BookingRole.OWNER, user1.getId(), BookingState.ALL, now, 0, 10)).containsExactly(booking1);
+        assertThat(bookingRepository.findPage(BookingRole.OWNER, user1.getId(), BookingState.PAST, now, 0, 10)).containsExactly(booking1);
+        assertThat(bookingRepository.findPage(BookingRole.OWNER, user2.getId(), BookingState.CURRENT, now.plusDays(3), 0, 10)).containsExactly(booking2);
+        assertThat(bookingRepository.findPage(BookingRole.OWNER, user2.getId(), BookingState.FUTURE, now, 0, 10)).containsExactly(booking2);
+        assertThat(bookingRepository.findPage(BookingRole.OWNER, user2.getId(), BookingState.WAITING, now, 0, 10)).containsExactly(booking2);
+        assertThat(bookingRepository.findPage(BookingRole.OWNER, user2.getId(), BookingState.REJECTED, now, 0, 10)).isEmpty();
     }
 
     @Test
-    void testFindAllByItemOwner() {
-        List<Booking> bookings = bookingRepository.findAllByItemOwner(user1, Sort.by(Sort.Direction.ASC, "start"));
+    void testFindPageAppliesOffsetInStartOrder() {
+        Booking later = bookingRepository.save(new Booking(null, LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1), item2, user1, BookingStatus.WAITING, item2.getOwner().getId()));
 
-        assertThat(bookings).hasSize(1);
-        assertThat(bookings.get(0)).isEqualTo(booking1);
+        assertThat(bookingRepository.findPage(BookingRole.BOOKER, user1.getId(), BookingState.ALL, LocalDateTime.now(), 0, 1)).containsExactly(later);
+        assertThat(bookingRepository.findPage(BookingRole.BOOKER, user1.getId(), BookingState.ALL, LocalDateTime.now(), 1, 1)).containsExactly(booking1);
     }
 
     @Test
-    void testFindAllByItemOwnerAndStartBeforeAndEndAfter() {
-        List<Booking> bookings = bookingRepository.findAllByItemOwnerAndStartBeforeAndEndAfter(user2, LocalDateTime.now().plusDays(3), LocalDateTime.now().plusDays(1), Sort.by(Sort.Direction.DESC, "start"));
-
-        assertThat(bookings).hasSize(1);
-        assertThat(bookings.get(0)).isEqualTo(booking2);
+    void testFindPageRejectsUnknownState() {
+        assertThatThrownBy(() -> bookingRepository.findPage(BookingRole.OWNER, user1.getId(), BookingState.UNSUPPORTED_STATUS, LocalDateTime.now(), 0, 10))
+                .isInstanceOf(NotCorrectRequestException.class)
+                .hasMessage("Unknown state: UNSUPPORTED_STATUS");
     }
 
-
-
     @Test
-    void testFindAllByItemOwnerAndEndBefore() {
-        List<Booking> bookings = bookingRepository.findAllByItemOwnerAndEndBefore(user1, LocalDateTime.now(), Sort.by(Sort.Direction.ASC, "end"));
+    void testFindLastBookingsByItemIdIn() {
+        Booking earlier = bookingRepository.save(new Booking(null, LocalDateTime.now().minusDays(8), LocalDateTime.now().minusDays(7), item1, user2, BookingStatus.APPROVED, item1.getOwner().getId()));
+        List<Booking> bookings = bookingRepository.findLastBookingsByItemIdIn(List.of(item1.getId(), item2.getId()), LocalDateTime.now());
 
         assertThat(bookings).hasSize(1);
         assertThat(bookings.get(0)).isEqualTo(booking1);
+        assertThat(bookings).doesNotContain(earlier);
     }
 
     @Test
-    void testFindAllByItemOwnerAndStartAfter() {
-        List<Booking> bookings = bookingRepository.findAllByItemOwnerAndStartAfter(user2, LocalDateTime.now(), Sort.by(Sort.Direction.ASC, "start"));
-
-        assertThat(bookings).hasSize(1);
-        assertThat(bookings.get(0)).isEqualTo(booking2);
-    }
-
-    @Test
-    void testFindAllByItemOwnerAndStatusEquals() {
-        List<Booking> bookings = bookingRepository.findAllByItemOwnerAndStatusEquals(user2, BookingStatus.WAITING, Sort.by(Sort.Direction.ASC, "start"));
+    void testFindNextBookingsByItemIdIn() {
+        Booking later = bookingRepository.save(new Booking(null, LocalDateTime.now().plusDays(6), LocalDateTime.now().plusDays(7), item2, user1, BookingStatus.WAITING, item2.getOwner().getId()));
+        List<Booking> bookings = bookingRepository.findNextBookingsByItemIdIn(List.of(item1.getId(), item2.getId()), LocalDateTime.now());
 
         assertThat(bookings).hasSize(1);
         assertThat(bookings.get(0)).isEqualTo(booking2);
+        assertThat(bookings).doesNotContain(later);
     }
 
     @Test
-    void testFindAllByItemIdInAndStartBefore() {
-        List<Booking> bookings = bookingRepository.findAllByItemIdInAndStartBefore(List.of(item1.getId(), item2.getId()), LocalDateTime.now().plusDays(1), Sort.by(Sort.Direction.ASC, "start"));
+    void testFindLastAndNextBookingsByItemId() {
+        Booking next = bookingRepository.save(new Booking(null, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2), item1, user2, BookingStatus.WAITING, item1.getOwner().getId()));
+        bookingRepository.save(new Booking(null, LocalDateTime.now().plusDays(3), LocalDateTime.now().plusDays(4), item1, user2, BookingStatus.WAITING, item1.getOwner().getId()));
+        List<BookingShortDto> bookings = bookingRepository.findLastAndNextBookingsByItemId(item1.getId(), LocalDateTime.now());
 
-        assertThat(bookings).hasSize(1);
-        assertThat(bookings.get(0)).isEqualTo(booking1);
+        assertThat(bookings).extracting(BookingShortDto::getId).containsExactly(booking1.getId(), next.getId());
+        assertThat(bookings.get(0).getItemId()).isEqualTo(item1.getId());
+        assertThat(bookings.get(0).getBookerId()).isEqualTo(user1.getId());
     }
 
     @Test
-    void testFindAllByItemIdAndStartAfter() {
-        List<Booking> bookings = bookingRepository.findAllByItemIdAndStartAfter(item2.getId(), LocalDateTime.now(), Sort.by(Sort.Direction.ASC, "start"));
-
-        assertThat(bookings).hasSize(1);
-        assertThat(bookings.get(0)).isEqualTo(booking2);
-    }
-
-    @Test
-    void testFindAllByItemIdAndStartBefore() {
-        List<Booking> bookings = bookingRepository.findAllByItemIdAndStartBefore(item1.getId(), LocalDateTime.now(), Sort.by(Sort.Direction.ASC, "start"));
-
-        assertThat(bookings).hasSize(1);
-        assertThat(bookings.get(0)).isEqualTo(booking1);
-    }
+    void testFindPageAfterSeeksByStartAndId() {
+        booking1.setStart(booking1.getStart().truncatedTo(ChronoUnit.SECONDS));
+        bookingRepository.save(booking1);
+        Booking earlier = bookingRepository.save(new Booking(null, LocalDateTime.now().minusDays(9), LocalDateTime.now().minusDays(8), item2, user1, BookingStatus.REJECTED, item2.getOwner().getId()));
+        Booking sameStart = bookingRepository.save(new Booking(null, booking1.getStart(), LocalDateTime.now().minusDays(1), item2, user1, BookingStatus.WAITING, item2.getOwner().getId()));
 
-    @Test
-    void testFindAllByBookerWithPaging() {
-        Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "start"));
-        Page<Booking> page = bookingRepository.findAllByBooker(user1, pageable);
+        List<Booking> firstPage = bookingRepository.findPageAfter(BookingRole.BOOKER, user1.getId(), BookingState.ALL, LocalDateTime.now(), null, 2);
+        assertThat(firstPage).containsExactly(sameStart, booking1);
 
-        assertThat(page.getTotalElements()).isEqualTo(1);
-        assertThat(page.getContent().get(0)).isEqualTo(booking1);
+        PageCursor after = PageCursor.of(firstPage.get(1).getStart(), firstPage.get(1).getId());
+        List<Booking> secondPage = bookingRepository.findPageAfter(BookingRole.BOOKER, user1.getId(), BookingState.ALL, LocalDateTime.now(), after, 2);
+        assertThat(secondPage).containsExactly(earlier);
     }
 
     @Test
-    void testFindAllByBookerAndStartBeforeAndEndAfterWithPaging() {
-        Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "start"));
-        Page<Booking> page = bookingRepository.findAllByBookerAndStartBeforeAndEndAfter(user1, LocalDateTime.now().minusDays(4), LocalDateTime.now().minusDays(3), pageable);
+    void testFindPageReturnsBookingMovedBetweenReadsOnce() {
+        jdbcTemplate.update("INSERT INTO bookings_archive (id, start_date, end_date, item_id, booker_id, status, owner_id) " +
+                "SELECT id, start_date, end_date, item_id, booker_id, status, owner_id FROM bookings WHERE id = ?", booking1.getId());
 
-        assertThat(page.getTotalElements()).isEqualTo(1);
-        assertThat(page.getContent().get(0)).isEqualTo(booking1);
+        assertThat(bookingRepository.findPage(BookingRole.BOOKER, user1.getId(), BookingState.ALL, LocalDateTime.now(), 0, 10))
+                .containsExactly(booking1);
+        assertThat(bookingRepository.findPageAfter(BookingRole.OWNER, user1.getId(), BookingState.PAST, LocalDateTime.now(), null, 10))
+                .containsExactly(booking1);
     }
 
     @Test
-    void testFindAllByBookerAndEndBeforeWithPaging() {
-        Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "end"));
-        Page<Booking> page = bookingRepository.findAllByBookerAndEndBefore(user1, LocalDateTime.now(), pageable);
-
-        assertThat(page.getTotalElements()).isEqualTo(1);
-        assertThat(page.getContent().get(0)).isEqualTo(booking1);
-    }
+    void testFindActiveIntervals() {
+        bookingRepository.save(new Booking(null, LocalDateTime.now().plusDays(5), LocalDateTime.now().plusDays(6), item2, user1, BookingStatus.REJECTED, item2.getOwner().getId()));
 
-    @Test
-    void testFindAllByBookerAndStartAfterWithPaging() {
-        Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "start"));
-        Page<Booking> page = bookingRepository.findAllByBookerAndStartAfter(user2, LocalDateTime.now(), pageable);
+        List<BookingShortDto> intervals = bookingRepository.findActiveIntervals(List.of(BookingStatus.WAITING, BookingStatus.APPROVED),
+                LocalDateTime.now(), 0L, PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "id")));
 
-        assertThat(page.getTotalElements()).isEqualTo(1);
-        assertThat(page.getContent().get(0)).isEqualTo(booking2);
+        assertThat(intervals).hasSize(1);
+        assertThat(intervals.get(0).getId()).isEqualTo(booking2.getId());
+        assertThat(intervals.get(0).getItemId()).isEqualTo(item2.getId());
     }
 
     @Test
-    void testFindAllByBookerAndStatusEqualsWithPaging() {
-        Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "start"));
-        Page<Booking> page = bookingRepository.findAllByBookerAndStatusEquals(user2, BookingStatus.WAITING, pageable);
+    void testFindDetailsById() {
+        Booking booking = bookingRepository.save(new Booking(null, LocalDateTime.now().plusDays(5), LocalDateTime.now().plusDays(6), item1, user2, BookingStatus.WAITING, item1.getOwner().getId()));
 
-        assertThat(page.getTotalElements()).isEqualTo(1);
-        assertThat(page.getContent().get(0)).isEqualTo(booking2);
-    }
+        BookingDetails details = bookingRepository.findDetailsById(booking.getId()).orElseThrow();
 
-    @Test
-    void testFindAllByItemOwnerWithPaging() {
-        Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "start"));
-        Page<Booking> page = bookingRepository.findAllByItemOwner(user1, pageable);
-
-        assertThat(page.getTotalElements()).isEqualTo(1);
-        assertThat(page.getContent().get(0)).isEqualTo(booking1);
+        assertThat(details.getStatus()).isEqualTo(BookingStatus.WAITING);
+        assertThat(details.getItemId()).isEqualTo(item1.getId());
+        assertThat(details.getItemName()).isEqualTo("Item1");
+        assertThat(details.getOwnerId()).isEqualTo(user1.getId());
+        assertThat(details.getOwnerEmail()).isEqualTo("user1@example.com");
+        assertThat(details.getBookerId()).isEqualTo(user2.getId());
+        assertThat(details.getBookerName()).isEqualTo("User2");
+        assertThat(bookingRepository.findDetailsById(-1L)).isEmpty();
     }
 
     @Test
-    void testFindAllByItemOwnerAndStartBeforeAndEndAfterWithPaging() {
-        Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "start"));
-        Page<Booking> page = bookingRepository.findAllByItemOwnerAndStartBeforeAndEndAfter(user2, LocalDateTime.now().plusDays(3), LocalDateTime.now().plusDays(1), pageable);
+    void testUpdateStatusOnlyFromWaitingByOwner() {
+        assertThat(bookingRepository.updateStatus(booking2.getId(), user1.getId(), BookingStatus.WAITING, BookingStatus.APPROVED)).isZero();
+        assertThat(bookingRepository.updateStatus(booking2.getId(), user2.getId(), BookingStatus.WAITING, BookingStatus.APPROVED)).isEqualTo(1);
+        assertThat(bookingRepository.updateStatus(booking2.getId(), user2.getId(), BookingStatus.WAITING, BookingStatus.REJECTED)).isZero();
 
-        assertThat(page.getTotalElements()).isEqualTo(1);
-        assertThat(page.getContent().get(0)).isEqualTo(booking2);
+        assertThat(bookingRepository.findDetailsById(booking2.getId()).orElseThrow().getStatus()).isEqualTo(BookingStatus.APPROVED);
     }
 
     @Test
-    void testFindAllByItemOwnerAndEndBeforeWithPaging() {
-        Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "end"));
-        Page<Booking> page = bookingRepository.findAllByItemOwnerAndEndBefore(user1, LocalDateTime.now(), pageable);
+    void testFindBookedItemIds() {
+        List<BookingStatus> statuses = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
 
-        assertThat(page.getTotalElements()).isEqualTo(1);
-        assertThat(page.getContent().get(0)).isEqualTo(booking1);
+        assertThat(bookingRepository.findBookedItemIds(List.of(item1.getId(), item2.getId()), statuses,
+                LocalDateTime.now().plusDays(3), LocalDateTime.now().plusDays(5))).containsExactly(item2.getId());
+        assertThat(bookingRepository.findBookedItemIds(List.of(item1.getId(), item2.getId()), statuses,
+                LocalDateTime.now().plusDays(5), LocalDateTime.now().plusDays(6))).isEmpty();
     }
 
     @Test
-    void testFindAllByItemOwnerAndStartAfterWithPaging() {
-        Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "start"));
-        Page<Booking> page = bookingRepository.findAllByItemOwnerAndStartAfter(user2, LocalDateTime.now(), pageable);
-
-        assertThat(page.getTotalElements()).isEqualTo(1);
-        assertThat(page.getContent().get(0)).isEqualTo(booking2);
-    }
+    void testFindIntervalsByItemId() {
+        List<BookingStatus> statuses = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
 
-    @Test
-    void testFindAllByItemOwnerAndStatusEqualsWithPaging() {
-        Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "start"));
-        Page<Booking> page = bookingRepository.findAllByItemOwnerAndStatusEquals(user2, BookingStatus.WAITING, pageable);
+        List<BookingShortDto> intervals = bookingRepository.findIntervalsByItemId(item2.getId(), statuses,
+                LocalDateTime.now().plusDays(3), LocalDateTime.now().plusDays(10));
 
-        assertThat(page.getTotalElements()).isEqualTo(1);
-        assertThat(page.getContent().get(0)).isEqualTo(booking2);
+        assertThat(intervals).hasSize(1);
+        assertThat(intervals.get(0).getId()).isEqualTo(booking2.getId());
+        assertThat(intervals.get(0).getItemId()).isEqualTo(item2.getId());
+        assertThat(bookingRepository.findIntervalsByItemId(item2.getId(), statuses,
+                LocalDateTime.now().plusDays(4).plusHours(1), LocalDateTime.now().plusDays(10))).isEmpty();
     }
 
     @Test
-    void testFindAllByItemIdAndStartBeforeWithPaging() {
-        Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "start"));
-        Page<Booking> page = bookingRepository.findAllByItemIdAndStartBefore(item1.getId(), LocalDateTime.now(), pageable);
+    void testFindPageAfterByOwnerAndState() {
+        List<Booking> future = bookingRepository.findPageAfter(BookingRole.OWNER, user2.getId(), BookingState.FUTURE, LocalDateTime.now(), null, 10);
+        List<Booking> past = bookingRepository.findPageAfter(BookingRole.OWNER, user2.getId(), BookingState.PAST, LocalDateTime.now(), null, 10);
 
-        assertThat(page.getTotalElements()).isEqualTo(1);
-        assertThat(page.getContent().get(0)).isEqualTo(booking1);
+        assertThat(future).containsExactly(booking2);
+        assertThat(past).isEmpty();
     }
 
-    @Test
-    void testFindAllByItemIdAndStartAfterWithPaging() {
-        Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "start"));
-        Page<Booking> page = bookingRepository.findAllByItemIdAndStartAfter(item2.getId(), LocalDateTime.now(), pageable);
-
-        assertThat(page.getTotalElements()).isEqualTo(1);
-        assertThat(page.getContent().get(0)).isEqualTo(booking2);
-    }
 }
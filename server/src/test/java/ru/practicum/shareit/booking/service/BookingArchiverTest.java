@@ -0,0 +1,128 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.controller.dto.BookingShortDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.PageCursor;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class BookingArchiverTest {
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ArchivedBookingRepository archivedBookingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private User owner;
+    private User booker;
+    private Item item;
+    private BookingArchiver archiver;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(new User(null, "Owner", "owner@example.com"));
+        booker = userRepository.save(new User(null, "Booker", "booker@example.com"));
+        item = itemRepository.save(new Item(null, "Item", "Description", true, owner, null));
+        archiver = new BookingArchiver(Duration.ofDays(30), 2, Duration.ZERO, jdbcTemplate, transactionTemplate);
+        now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    @Test
+    void testArchiveMovesOnlyOldProcessedBookings() {
+        Booking oldest = save(now.minusDays(90), BookingStatus.APPROVED);
+        Booking old = save(now.minusDays(60), BookingStatus.REJECTED);
+        Booking older = save(now.minusDays(70), BookingStatus.APPROVED);
+        Booking oldWaiting = save(now.minusDays(50), BookingStatus.WAITING);
+        Booking recent = save(now.minusDays(5), BookingStatus.APPROVED);
+        Booking future = save(now.plusDays(5), BookingStatus.WAITING);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(archiver.archive()).isEqualTo(3);
+        assertThat(archiver.archive()).isZero();
+
+        assertThat(ids(bookingRepository.findAll())).containsExactlyInAnyOrder(oldWaiting.getId(), recent.getId(), future.getId());
+        assertThat(archivedBookingRepository.count()).isEqualTo(3);
+        assertThat(archivedBookingRepository.findDetailsById(old.getId()).orElseThrow().getOwnerId()).isEqualTo(owner.getId());
+
+        List<Booking> all = bookingRepository.findPage(BookingRole.BOOKER, booker.getId(), BookingState.ALL, LocalDateTime.now(), 0, 10);
+        assertThat(ids(all)).containsExactly(future.getId(), recent.getId(), oldWaiting.getId(), old.getId(), older.getId(), oldest.getId());
+
+        List<Booking> pastPage = bookingRepository.findPage(BookingRole.OWNER, owner.getId(), BookingState.PAST, LocalDateTime.now(), 2, 2);
+        assertThat(ids(pastPage)).containsExactly(old.getId(), older.getId());
+
+        List<Booking> afterCursor = bookingRepository.findPageAfter(BookingRole.BOOKER, booker.getId(), BookingState.ALL,
+                LocalDateTime.now(), PageCursor.of(old.getStart(), old.getId()), 10);
+        assertThat(ids(afterCursor)).containsExactly(older.getId(), oldest.getId());
+
+        List<Booking> rejected = bookingRepository.findPage(BookingRole.BOOKER, booker.getId(), BookingState.REJECTED, LocalDateTime.now(), 0, 10);
+        assertThat(ids(rejected)).containsExactly(old.getId());
+
+        List<Booking> waiting = bookingRepository.findPage(BookingRole.BOOKER, booker.getId(), BookingState.WAITING, LocalDateTime.now(), 0, 10);
+        assertThat(ids(waiting)).containsExactly(future.getId(), oldWaiting.getId());
+    }
+
+    @Test
+    void testArchivedBookingStillCountsForCommentsAndLastBooking() {
+        Booking old = save(now.minusDays(90), BookingStatus.APPROVED);
+        entityManager.flush();
+        entityManager.clear();
+
+        archiver.archive();
+
+        assertThat(archivedBookingRepository.existsByBookerIdAndItemIdAndStatusAndEndBefore(booker.getId(), item.getId(),
+                BookingStatus.APPROVED, LocalDateTime.now())).isTrue();
+        List<BookingShortDto> last = archivedBookingRepository.findLastBookingsByItemIdIn(List.of(item.getId()));
+        assertThat(last).hasSize(1);
+        assertThat(last.get(0).getId()).isEqualTo(old.getId());
+        assertThat(last.get(0).getBookerId()).isEqualTo(booker.getId());
+    }
+
+    private Booking save(LocalDateTime start, BookingStatus status) {
+        return bookingRepository.save(new Booking(null, start, start.plusDays(1), item, booker, status, owner.getId()));
+    }
+
+    private static List<Long> ids(List<Booking> bookings) {
+        return bookings.stream().map(Booking::getId).collect(Collectors.toList());
+    }
+}
@@ -3,24 +3,32 @@ package ru.practicum.shareit.booking.service;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.*;
+import ru.practicum.shareit.booking.controller.dto.BookingItemResponse;
 import ru.practicum.shareit.booking.controller.dto.BookingResponse;
 import ru.practicum.shareit.booking.controller.dto.BookingShortDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingDetails;
+import ru.practicum.shareit.booking.model.BookingRole;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.DataNotCorrectException;
 import ru.practicum.shareit.exception.DataNotFoundException;
 import ru.practicum.shareit.exception.NotCorrectRequestException;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemDetailCache;
+import ru.practicum.shareit.user.controller.dto.UserResponse;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserCache;
+import ru.practicum.shareit.util.PageCursor;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -28,13 +36,16 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class BookingImplTest {
 
     @Mock
-    private UserRepository userRepository;
+    private UserCache userCache;
 
     @Mock
     private ItemRepository itemRepository;
@@ -42,12 +53,24 @@ class BookingImplTest {
     @Mock
     private BookingRepository bookingRepository;
 
+    @Mock
+    private ArchivedBookingRepository archivedBookingRepository;
+
     @Mock
     private BookingMapper bookingMapper;
 
     @Mock
     private CommentMapper commentMapper;
 
+    @Mock
+    private ItemDetailCache itemDetailCache;
+
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    @Mock
+    private BookingLocks bookingLocks;
+
     @InjectMocks
     private BookingImpl bookingService;
 
@@ -96,8 +119,8 @@ class BookingImplTest {
         BookingResponse bookingResponse = BookingResponse.builder()
                 .id(booking.getId())
                 .status(BookingStatus.WAITING)
-                .item(booking.getItem())
-                .booker(booking.getBooker())
+                .item(itemResponse(booking.getItem()))
+                .booker(userResponse(booking.getBooker()))
                 .start(booking.getStart())
                 .end(booking.getEnd())
                 .build();
@@ -112,9 +135,9 @@ class BookingImplTest {
                 .id(2L)
                 .name("name2")
                 .build();
-        when(userRepository.findById(currentUser.getId())).thenReturn(Optional.of(currentUser));
+        when(userCache.find(currentUser.getId())).thenReturn(Optional.of(currentUser));
 
-        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(itemRepository.findWithOwnerById(item.getId())).thenReturn(Optional.of(item));
 
 
         Booking booking = Booking.builder()
@@ -137,10 +160,10 @@ class BookingImplTest {
 
         BookingResponse bookingResponse = BookingResponse.builder()
                 .id(bookingDto.getId())
-                .booker(user)
+                .booker(userResponse(user))
                 .end(bookingDto.getEnd())
                 .start(bookingDto.getStart())
-                .item(Item.builder()
+                .item(BookingItemResponse.builder()
                         .id(bookingDto.getItemId())
                         .build())
                 .status(BookingStatus.WAITING)
@@ -154,32 +177,57 @@ class BookingImplTest {
         assertEquals(item.getId(), response.getItem().getId());
         assertEquals(BookingStatus.WAITING, response.getStatus());
 
-        verify(userRepository, times(1)).findById(currentUser.getId());
-        verify(itemRepository, times(1)).findById(item.getId());
+        verify(userCache, times(1)).find(currentUser.getId());
+        verify(itemRepository, times(1)).findWithOwnerById(item.getId());
         verify(bookingRepository, times(1)).save(any(Booking.class));
+        verify(bookingLocks, times(1)).lockItem(item.getId());
+        verify(bookingRepository).save(argThat(saved -> user.getId().equals(saved.getOwnerId())));
+        verify(bookingIntervalIndex, times(1)).reserve(1L, item.getId(), bookingDto.getStart(), bookingDto.getEnd());
+        verify(bookingRepository, never()).findBookedItemIds(any(), any(), any(), any());
+    }
+
+    @Test
+    void testCreateBookingSharedLockRejectsOverlapFromDatabase() {
+        User currentUser = User.builder()
+                .id(2L)
+                .name("name2")
+                .build();
+        when(userCache.find(currentUser.getId())).thenReturn(Optional.of(currentUser));
+        when(itemRepository.findWithOwnerById(item.getId())).thenReturn(Optional.of(item));
+        when(bookingLocks.isShared()).thenReturn(true);
+        when(bookingRepository.findBookedItemIds(List.of(item.getId()), List.of(BookingStatus.WAITING, BookingStatus.APPROVED),
+                bookingDto.getStart(), bookingDto.getEnd())).thenReturn(List.of(item.getId()));
+
+        assertThrows(DataNotCorrectException.class, () -> bookingService.create(bookingDto, currentUser.getId()));
+
+        InOrder inOrder = inOrder(bookingLocks, bookingRepository);
+        inOrder.verify(bookingLocks).lockItem(item.getId());
+        inOrder.verify(bookingRepository).findBookedItemIds(any(), any(), any(), any());
+        verify(bookingRepository, never()).save(any(Booking.class));
+        verifyNoInteractions(bookingIntervalIndex);
     }
 
     @Test
     void testCreateBooking_UserNotFound() {
-        when(userRepository.findById(user.getId())).thenReturn(Optional.empty());
+        when(userCache.find(user.getId())).thenReturn(Optional.empty());
 
         assertThrows(DataNotFoundException.class, () -> bookingService.create(bookingDto, user.getId()));
 
-        verify(userRepository, times(1)).findById(user.getId());
-        verify(itemRepository, never()).findById(anyLong());
+        verify(userCache, times(1)).find(user.getId());
+        verify(itemRepository, never()).findWithOwnerById(anyLong());
         verify(bookingRepository, never()).save(any(Booking.class));
     }
 
     @Test
     void testCreateBooking_ItemNotFound() {
-        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(userCache.find(user.getId())).thenReturn(Optional.of(user));
 
-        when(itemRepository.findById(item.getId())).thenReturn(Optional.empty());
+        when(itemRepository.findWithOwnerById(item.getId())).thenReturn(Optional.empty());
 
         assertThrows(DataNotFoundException.class, () -> bookingService.create(bookingDto, user.getId()));
 
-        verify(userRepository, times(1)).findById(user.getId());
-        verify(itemRepository, times(1)).findById(item.getId());
+        verify(userCache, times(1)).find(user.getId());
+        verify(itemRepository, times(1)).findWithOwnerById(item.getId());
         verify(bookingRepository, never()).save(any(Booking.class));
     }
 
@@ -187,22 +235,22 @@ class BookingImplTest {
     void testCreateBooking_ItemNotAvailable() {
         item.setAvailable(false);
 
-        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(userCache.find(user.getId())).thenReturn(Optional.of(user));
 
-        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(itemRepository.findWithOwnerById(item.getId())).thenReturn(Optional.of(item));
 
         assertThrows(NotCorrectRequestException.class, () -> bookingService.create(bookingDto, user.getId()));
 
-        verify(userRepository, times(1)).findById(user.getId());
-        verify(itemRepository, times(1)).findById(item.getId());
+        verify(userCache, times(1)).find(user.getId());
+        verify(itemRepository, times(1)).findWithOwnerById(item.getId());
         verify(bookingRepository, never()).save(any(Booking.class));
     }
 
     @Test
     void testCreateBookingOwnerIsUser() {
-        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(userCache.find(user.getId())).thenReturn(Optional.of(user));
 
-        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(itemRepository.findWithOwnerById(item.getId())).thenReturn(Optional.of(item));
 
         assertThrows(DataNotFoundException.class, () -> bookingService.create(bookingDto, user.getId()));
     }
@@ -221,9 +269,9 @@ class BookingImplTest {
                 .id(2L)
                 .name("name2")
                 .build();
-        when(userRepository.findById(currentUser.getId())).thenReturn(Optional.of(currentUser));
+        when(userCache.find(currentUser.getId())).thenReturn(Optional.of(currentUser));
 
-        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(itemRepository.findWithOwnerById(item.getId())).thenReturn(Optional.of(item));
 
 
         Booking booking = Booking.builder()
@@ -240,10 +288,10 @@ class BookingImplTest {
 
         BookingResponse bookingResponse = BookingResponse.builder()
                 .id(bookingDto2.getId())
-                .booker(user)
+                .booker(userResponse(user))
                 .end(bookingDto2.getEnd())
                 .start(null)
-                .item(Item.builder()
+                .item(BookingItemResponse.builder()
                         .id(bookingDto2.getItemId())
                         .build())
                 .status(BookingStatus.WAITING)
@@ -265,9 +313,9 @@ class BookingImplTest {
                 .id(2L)
                 .name("name2")
                 .build();
-        when(userRepository.findById(currentUser.getId())).thenReturn(Optional.of(currentUser));
+        when(userCache.find(currentUser.getId())).thenReturn(Optional.of(currentUser));
 
-        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(itemRepository.findWithOwnerById(item.getId())).thenReturn(Optional.of(item));
 
 
         Booking booking = Booking.builder()
@@ -284,10 +332,10 @@ class BookingImplTest {
 
         BookingResponse bookingResponse = BookingResponse.builder()
                 .id(bookingDto2.getId())
-                .booker(user)
+                .booker(userResponse(user))
                 .end(null)
                 .start(bookingDto2.getStart())
-                .item(Item.builder()
+                .item(BookingItemResponse.builder()
                         .id(bookingDto2.getItemId())
                         .build())
                 .status(BookingStatus.WAITING)
@@ -309,9 +357,9 @@ class BookingImplTest {
                 .id(2L)
                 .name("name2")
                 .build();
-        when(userRepository.findById(currentUser.getId())).thenReturn(Optional.of(currentUser));
+        when(userCache.find(currentUser.getId())).thenReturn(Optional.of(currentUser));
 
-        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(itemRepository.findWithOwnerById(item.getId())).thenReturn(Optional.of(item));
 
 
         Booking booking = Booking.builder()
@@ -328,10 +376,10 @@ class BookingImplTest {
 
         BookingResponse bookingResponse = BookingResponse.builder()
                 .id(bookingDto2.getId())
-                .booker(user)
+                .booker(userResponse(user))
                 .end(bookingDto2.getEnd())
                 .start(bookingDto2.getStart())
-                .item(Item.builder()
+                .item(BookingItemResponse.builder()
                         .id(bookingDto2.getItemId())
                         .build())
                 .status(BookingStatus.WAITING)
@@ -354,62 +402,74 @@ class BookingImplTest {
                 .id(2L)
                 .name("name2")
                 .build();
-        when(userRepository.findById(currentUser.getId())).thenReturn(Optional.of(currentUser));
+        when(userCache.find(currentUser.getId())).thenReturn(Optional.of(currentUser));
 
-        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(itemRepository.findWithOwnerById(item.getId())).thenReturn(Optional.of(item));
         assertThrows(NotCorrectRequestException.class, () -> bookingService.create(bookingDto2, currentUser.getId()));
     }
 
     @Test
     void testUpdateBookingApproved() {
-        when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
+        when(bookingRepository.updateStatus(booking.getId(), user.getId(), BookingStatus.WAITING, BookingStatus.APPROVED))
+                .thenReturn(1);
+        booking.setStatus(BookingStatus.APPROVED);
+        when(bookingRepository.findDetailsById(booking.getId())).thenReturn(Optional.of(details(booking)));
 
         BookingResponse bookingResponse = BookingResponse.builder()
                 .id(booking.getId())
                 .status(BookingStatus.APPROVED)
-                .item(booking.getItem())
-                .booker(booking.getBooker())
+                .item(itemResponse(booking.getItem()))
+                .booker(userResponse(booking.getBooker()))
                 .start(booking.getStart())
                 .end(booking.getEnd())
                 .build();
-        when(bookingMapper.toBookingResponse(any(), any(), any()))
+        when(bookingMapper.toBookingResponse(any(BookingDetails.class)))
                 .thenReturn(bookingResponse);
 
         BookingResponse response = bookingService.update(booking.getId(), user.getId(), true);
 
         assertNotNull(response);
         assertEquals(BookingStatus.APPROVED, response.getStatus());
+        verify(bookingRepository, never()).save(any(Booking.class));
+        verify(itemDetailCache, times(1)).invalidate(item.getId());
+        verify(bookingIntervalIndex, never()).release(anyLong());
     }
 
     @Test
     void testUpdateBookingRejected() {
-        when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
+        when(bookingRepository.updateStatus(booking.getId(), user.getId(), BookingStatus.WAITING, BookingStatus.REJECTED))
+                .thenReturn(1);
+        booking.setStatus(BookingStatus.REJECTED);
+        when(bookingRepository.findDetailsById(booking.getId())).thenReturn(Optional.of(details(booking)));
 
         BookingResponse bookingResponse = BookingResponse.builder()
                 .id(booking.getId())
                 .status(BookingStatus.REJECTED)
-                .item(booking.getItem())
-                .booker(booking.getBooker())
+                .item(itemResponse(booking.getItem()))
+                .booker(userResponse(booking.getBooker()))
                 .start(booking.getStart())
                 .end(booking.getEnd())
                 .build();
-        when(bookingMapper.toBookingResponse(any(), any(), any()))
+        when(bookingMapper.toBookingResponse(any(BookingDetails.class)))
                 .thenReturn(bookingResponse);
 
         BookingResponse response = bookingService.update(booking.getId(), user.getId(), false);
 
         assertNotNull(response);
         assertEquals(BookingStatus.REJECTED, response.getStatus());
+        verify(bookingIntervalIndex, times(1)).release(booking.getId());
     }
 
     @Test
     void testUpdateBookingInvalidBookerId() {
         assertThrows(DataNotFoundException.class, () -> bookingService.update(99L, booking.getBooker().getId(), true));
+
+        verify(bookingRepository, times(1)).updateStatus(99L, booking.getBooker().getId(), BookingStatus.WAITING, BookingStatus.APPROVED);
     }
 
     @Test
     void testUpdateBookingInvalidUser() {
-        when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
+        when(bookingRepository.findDetailsById(booking.getId())).thenReturn(Optional.of(details(booking)));
 
         assertThrows(DataNotFoundException.class, () -> bookingService.update(booking.getId(), 999L, true));
     }
@@ -417,23 +477,24 @@ class BookingImplTest {
     @Test
     void testUpdateBookingAlreadyProcessed() {
         booking.setStatus(BookingStatus.APPROVED); // Set status to APPROVED
-        when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
+        when(bookingRepository.findDetailsById(booking.getId())).thenReturn(Optional.of(details(booking)));
 
         assertThrows(NotCorrectRequestException.class, () -> bookingService.update(booking.getId(), user.getId(), true));
+        verifyNoInteractions(bookingIntervalIndex, itemDetailCache);
     }
 
     @Test
     void testGetById_ValidUserIsBooker_ReturnsBookingResponse() {
-        when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
+        when(bookingRepository.findDetailsById(booking.getId())).thenReturn(Optional.of(details(booking)));
         BookingResponse bookingResponse = BookingResponse.builder()
                 .id(booking.getId())
                 .status(BookingStatus.REJECTED)
-                .item(booking.getItem())
-                .booker(booking.getBooker())
+                .item(itemResponse(booking.getItem()))
+                .booker(userResponse(booking.getBooker()))
                 .start(booking.getStart())
                 .end(booking.getEnd())
                 .build();
-        when(bookingMapper.toBookingResponse(any(), any(), any()))
+        when(bookingMapper.toBookingResponse(any(BookingDetails.class)))
                 .thenReturn(bookingResponse);
 
         BookingResponse response = bookingService.getById(booking.getId(), user.getId());
@@ -451,16 +512,16 @@ class BookingImplTest {
                 .build();
         item.setOwner(differentUser);
 
-        when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
+        when(bookingRepository.findDetailsById(booking.getId())).thenReturn(Optional.of(details(booking)));
         BookingResponse bookingResponse = BookingResponse.builder()
                 .id(booking.getId())
                 .status(BookingStatus.REJECTED)
-                .item(booking.getItem())
-                .booker(booking.getBooker())
+                .item(itemResponse(booking.getItem()))
+                .booker(userResponse(booking.getBooker()))
                 .start(booking.getStart())
                 .end(booking.getEnd())
                 .build();
-        when(bookingMapper.toBookingResponse(any(), any(), any()))
+        when(bookingMapper.toBookingResponse(any(BookingDetails.class)))
                 .thenReturn(bookingResponse);
         BookingResponse response = bookingService.getById(booking.getId(), differentUser.getId());
 
@@ -476,22 +537,20 @@ class BookingImplTest {
                 .email("different@example.com")
                 .build();
 
-        when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
+        when(bookingRepository.findDetailsById(booking.getId())).thenReturn(Optional.of(details(booking)));
 
         assertThrows(DataNotFoundException.class, () -> bookingService.getById(booking.getId(), differentUser.getId()));
     }
 
     @Test
     void testGetAllByUser_WithPaging_ReturnsBookingResponseList() {
-        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(userCache.find(user.getId())).thenReturn(Optional.of(user));
         when(bookingMapper.toBookingResponseOfList(bookingList)).thenReturn(bookingResponseList);
         Integer from = 0;
         Integer size = 10;
 
-        Page<Booking> bookingPage = new PageImpl<>(bookingList);
-        Pageable page = PageRequest.of(from, size, Sort.by(Sort.Direction.DESC, "start"));
-
-        when(bookingRepository.findAllByBooker(user, page)).thenReturn(bookingPage);
+        when(bookingRepository.findPage(eq(BookingRole.BOOKER), eq(user.getId()), eq(BookingState.ALL),
+                any(LocalDateTime.class), eq(from), eq(size))).thenReturn(bookingList);
 
         List<BookingResponse> response = bookingService.getAllByUser(user.getId(), BookingState.ALL, from, size);
 
@@ -499,98 +558,119 @@ class BookingImplTest {
         assertEquals(bookingResponseList.size(), response.size());
         assertEquals(BookingResponse.class, response.get(0).getClass());
 
-        verify(userRepository, times(1)).findById(user.getId());
-        verify(bookingRepository, times(1)).findAllByBooker(user, PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "start")));
+        verify(userCache, times(1)).find(user.getId());
+        verify(bookingRepository, times(1)).findPage(eq(BookingRole.BOOKER), eq(user.getId()), eq(BookingState.ALL),
+                any(LocalDateTime.class), eq(0), eq(10));
         verify(bookingMapper, times(1)).toBookingResponseOfList(bookingList);
     }
 
     @Test
-    void testGetBookingByUser() {
-        // Mock userRepository behavior
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+    void testGetAllByOwnerAfter() {
+        LocalDateTime start = LocalDateTime.now().minusDays(1);
+        String after = PageCursor.of(start, 5L).encode();
+        when(userCache.find(user.getId())).thenReturn(Optional.of(user));
+        when(bookingRepository.findPageAfter(eq(BookingRole.OWNER), eq(user.getId()), eq(BookingState.ALL),
+                any(LocalDateTime.class), any(PageCursor.class), eq(10))).thenReturn(bookingList);
+        when(bookingMapper.toBookingResponse(any(Booking.class), any(), any())).thenReturn(bookingResponseList.get(0));
+
+        List<BookingResponse> response = bookingService.getAllByOwnerAfter(user.getId(), BookingState.ALL, after, 10);
+
+        assertEquals(bookingList.size(), response.size());
+        verify(bookingRepository, times(1)).findPageAfter(eq(BookingRole.OWNER), eq(user.getId()), eq(BookingState.ALL),
+                any(LocalDateTime.class), argThat(cursor -> start.equals(cursor.getStart()) && cursor.getId() == 5L), eq(10));
+    }
+
+    @Test
+    void testGetAllByUserAfterRejectsIdOnlyCursor() {
+        when(userCache.find(user.getId())).thenReturn(Optional.of(user));
 
-        // Mock bookingRepository behavior based on BookingState
-        Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "start"));
-        when(bookingRepository.findAllByBooker(user, pageable)).thenReturn(new PageImpl<>(bookingList));
+        assertThrows(NotCorrectRequestException.class,
+                () -> bookingService.getAllByUserAfter(user.getId(), BookingState.ALL, PageCursor.of(5L).encode(), 10));
+        verifyNoInteractions(bookingRepository);
+    }
 
-        // Mock mapper behavior
-        when(bookingMapper.toBookingResponseOfList(any())).thenReturn(new ArrayList<>()); // Adjust behavior if needed
+    @Test
+    void testGetAllByOwnerRoundsOffsetDownToPage() {
+        when(userCache.find(1L)).thenReturn(Optional.of(user));
+        when(bookingRepository.findPage(eq(BookingRole.OWNER), eq(1L), eq(BookingState.FUTURE),
+                any(LocalDateTime.class), eq(10), eq(10))).thenReturn(bookingList);
+        when(bookingMapper.toBookingResponseOfList(any())).thenReturn(new ArrayList<>());
 
-        // Test with BookingState.ALL
-        List<BookingResponse> responses = bookingService.getBookingByUser(1L, BookingState.ALL, pageable);
+        List<BookingResponse> responses = bookingService.getAllByOwner(1L, BookingState.FUTURE, 15, 10);
         assertNotNull(responses);
-        assertEquals(0, responses.size()); // Assuming mapper.toBookingResponseOfList returns an empty list for this mock
+        assertEquals(0, responses.size());
 
-        // Verify interactions
-        verify(userRepository, times(1)).findById(1L);
-        verify(bookingRepository, times(1)).findAllByBooker(user, pageable);
+        verify(userCache, times(1)).find(1L);
         verify(bookingMapper, times(1)).toBookingResponseOfList(bookingList);
     }
 
     @Test
-    void testGetBookingByUserThrowsExceptionWhenUserNotFound() {
-        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+    void testGetAllByUserThrowsExceptionWhenUserNotFound() {
+        when(userCache.find(1L)).thenReturn(Optional.empty());
 
-        assertThrows(DataNotFoundException.class, () -> bookingService.getBookingByUser(1L, BookingState.ALL, PageRequest.of(0, 10)));
+        assertThrows(DataNotFoundException.class, () -> bookingService.getAllByUser(1L, BookingState.ALL, 0, 10));
 
-        verify(userRepository, times(1)).findById(1L);
+        verify(userCache, times(1)).find(1L);
         verifyNoMoreInteractions(bookingRepository, bookingMapper);
     }
 
     @Test
-    void testGetFullBooking() {
-        // Mock bookingRepository behavior
-        when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
-
-        // Perform the method call
-        Booking result = bookingService.getFullBooking(1L);
-
-        // Assertions
-        assertNotNull(result);
-        assertEquals(booking.getId(), result.getId());
-        assertEquals(booking.getStatus(), result.getStatus());
-        assertEquals(booking.getStart(), result.getStart());
-        assertEquals(booking.getEnd(), result.getEnd());
-        assertEquals(booking.getBooker().getId(), result.getBooker().getId());
-        assertEquals(booking.getBooker().getName(), result.getBooker().getName());
-        assertEquals(booking.getBooker().getEmail(), result.getBooker().getEmail());
-        assertEquals(booking.getItem().getId(), result.getItem().getId());
-        assertEquals(booking.getItem().getName(), result.getItem().getName());
-        assertEquals(booking.getItem().getDescription(), result.getItem().getDescription());
-        assertEquals(booking.getItem().getAvailable(), result.getItem().getAvailable());
-        assertEquals(booking.getItem().getOwner().getId(), result.getItem().getOwner().getId());
-        assertEquals(booking.getItem().getOwner().getName(), result.getItem().getOwner().getName());
-        assertEquals(booking.getItem().getOwner().getEmail(), result.getItem().getOwner().getEmail());
-
-        // Verify interactions
-        verify(bookingRepository, times(1)).findById(1L);
+    void testGetByIdBuildsResponseFromDetails() {
+        when(bookingRepository.findDetailsById(booking.getId())).thenReturn(Optional.of(details(booking)));
+        when(bookingMapper.toBookingResponse(any(BookingDetails.class))).thenReturn(bookingResponseList.get(0));
+
+        BookingResponse response = bookingService.getById(booking.getId(), user.getId());
+
+        assertEquals(booking.getId(), response.getId());
+        verify(bookingRepository, never()).findById(anyLong());
+        verify(bookingMapper).toBookingResponse(argThat((BookingDetails details) ->
+                details.getItemId().equals(item.getId()) && details.getOwnerEmail().equals(user.getEmail())));
+    }
+
+    @Test
+    void testGetByIdFallsBackToArchive() {
+        booking.setStatus(BookingStatus.APPROVED);
+        when(bookingRepository.findDetailsById(booking.getId())).thenReturn(Optional.empty());
+        when(archivedBookingRepository.findDetailsById(booking.getId())).thenReturn(Optional.of(details(booking)));
+        when(bookingMapper.toBookingResponse(any(BookingDetails.class))).thenReturn(bookingResponseList.get(0));
+
+        assertNotNull(bookingService.getById(booking.getId(), user.getId()));
+
+        verify(archivedBookingRepository, times(1)).findDetailsById(booking.getId());
     }
 
     @Test
-    void testGetFullBookingNotFound() {
-        // Mock bookingRepository behavior
-        when(bookingRepository.findById(1L)).thenReturn(Optional.empty());
+    void testGetByIdNotFound() {
+        when(bookingRepository.findDetailsById(1L)).thenReturn(Optional.empty());
 
-        // Perform the method call and assert exception
-        DataNotFoundException exception = assertThrows(DataNotFoundException.class, () -> bookingService.getFullBooking(1L));
+        DataNotFoundException exception = assertThrows(DataNotFoundException.class, () -> bookingService.getById(1L, 1L));
         assertEquals("Бронь не найдена id 1", exception.getMessage());
 
-        // Verify interactions
-        verify(bookingRepository, times(1)).findById(1L);
+        verify(bookingRepository, times(1)).findDetailsById(1L);
+        verify(archivedBookingRepository, times(1)).findDetailsById(1L);
     }
 
-    @Test
-    void testGetBookingByOwnerUnknownState() {
-        // Mock repository response (not used in this test)
-        Pageable pageable = Pageable.unpaged();
-        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
-        // Call the service method and assert exception
-        NotCorrectRequestException exception = assertThrows(NotCorrectRequestException.class, () -> {
-            bookingService.getBookingByOwner(user.getId(), BookingState.UNSUPPORTED_STATUS, pageable);
-        });
+    private BookingDetails details(Booking booking) {
+        Item item = booking.getItem();
+        User owner = item.getOwner();
+        User booker = booking.getBooker();
+        return new BookingDetails(booking.getId(), booking.getStart(), booking.getEnd(), booking.getStatus(),
+                item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                owner.getId(), owner.getName(), owner.getEmail(),
+                booker.getId(), booker.getName(), booker.getEmail());
+    }
+
+    private static BookingItemResponse itemResponse(Item item) {
+        return BookingItemResponse.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.getAvailable())
+                .owner(userResponse(item.getOwner()))
+                .build();
+    }
 
-        // Assertions
-        assertEquals("Unknown state: UNSUPPORTED_STATUS", exception.getMessage());
+    private static UserResponse userResponse(User user) {
+        return new UserResponse(user.getId(), user.getName(), user.getEmail());
     }
 }
-
@@ -0,0 +1,181 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.controller.dto.BookingShortDto;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.DataNotCorrectException;
+import ru.practicum.shareit.item.controller.dto.AvailabilityWindow;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingIntervalIndexTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private BookingLocks bookingLocks;
+
+    @InjectMocks
+    private BookingIntervalIndex index;
+
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        now = LocalDateTime.now().withNano(0);
+        when(bookingRepository.findActiveIntervals(anyList(), any(LocalDateTime.class), anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(
+                        new BookingShortDto(1L, now.plusDays(1), now.plusDays(3), 10L, 100L),
+                        new BookingShortDto(2L, now.plusDays(5), now.plusDays(6), 10L, 100L),
+                        new BookingShortDto(3L, now.plusDays(1), now.plusDays(3), 20L, 100L)))
+                .thenReturn(Collections.emptyList());
+        index.rebuild();
+    }
+
+    @Test
+    void testRebuildLoadsActiveBookings() {
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void testReserveRejectsOverlap() {
+        assertThrows(DataNotCorrectException.class,
+                () -> index.reserve(4L, 10L, now.plusDays(2), now.plusDays(4)));
+        assertThrows(DataNotCorrectException.class,
+                () -> index.reserve(4L, 10L, now, now.plusDays(10)));
+        assertThrows(DataNotCorrectException.class,
+                () -> index.reserve(4L, 10L, now.plusDays(5).plusHours(1), now.plusDays(5).plusHours(2)));
+    }
+
+    @Test
+    void testReserveAcceptsAdjacentAndOtherItems() {
+        assertDoesNotThrow(() -> index.reserve(4L, 10L, now.plusDays(3), now.plusDays(5)));
+        assertDoesNotThrow(() -> index.reserve(5L, 20L, now.plusDays(3), now.plusDays(4)));
+        assertEquals(5, index.size());
+    }
+
+    @Test
+    void testReleaseFreesInterval() {
+        index.release(1L);
+
+        assertDoesNotThrow(() -> index.reserve(4L, 10L, now.plusDays(2), now.plusDays(4)));
+    }
+
+    @Test
+    void testFreeWindowsReturnsGapsBetweenBookings() {
+        List<AvailabilityWindow> windows = index.freeWindows(10L, now, now.plusDays(10));
+
+        assertEquals(3, windows.size());
+        assertEquals(now, windows.get(0).getStart());
+        assertEquals(now.plusDays(1), windows.get(0).getEnd());
+        assertEquals(now.plusDays(3), windows.get(1).getStart());
+        assertEquals(now.plusDays(5), windows.get(1).getEnd());
+        assertEquals(now.plusDays(6), windows.get(2).getStart());
+        assertEquals(now.plusDays(10), windows.get(2).getEnd());
+    }
+
+    @Test
+    void testFreeWindowsStartingInsideBooking() {
+        List<AvailabilityWindow> windows = index.freeWindows(10L, now.plusDays(2), now.plusDays(5).plusHours(12));
+
+        assertEquals(1, windows.size());
+        assertEquals(now.plusDays(3), windows.get(0).getStart());
+        assertEquals(now.plusDays(5), windows.get(0).getEnd());
+    }
+
+    @Test
+    void testFreeWindowsForUnbookedItem() {
+        List<AvailabilityWindow> windows = index.freeWindows(30L, now, now.plusDays(1));
+
+        assertEquals(1, windows.size());
+        assertEquals(now, windows.get(0).getStart());
+    }
+
+    @Test
+    void testReserveRejectsOverlapHiddenByLegacyOverlappingBookings() {
+        rebuildWithOverlappingBookings();
+
+        assertThrows(DataNotCorrectException.class,
+                () -> index.reserve(4L, 10L, now.plusDays(5), now.plusDays(6)));
+        assertDoesNotThrow(() -> index.reserve(5L, 10L, now.plusDays(10), now.plusDays(11)));
+    }
+
+    @Test
+    void testFreeWindowsSkipLegacyOverlappingBookings() {
+        rebuildWithOverlappingBookings();
+
+        List<AvailabilityWindow> windows = index.freeWindows(10L, now.plusDays(4), now.plusDays(12));
+
+        assertEquals(1, windows.size());
+        assertEquals(now.plusDays(10), windows.get(0).getStart());
+        assertEquals(now.plusDays(12), windows.get(0).getEnd());
+    }
+
+    @Test
+    void testIndexBuiltBeforeServing() {
+        rebuildWithOverlappingBookings();
+        when(bookingRepository.findActiveIntervals(anyList(), any(LocalDateTime.class), anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(new BookingShortDto(7L, now.plusDays(1), now.plusDays(2), 30L, 100L)))
+                .thenReturn(Collections.emptyList());
+
+        index.afterSingletonsInstantiated();
+
+        assertEquals(1, index.size());
+        assertThrows(DataNotCorrectException.class,
+                () -> index.reserve(8L, 30L, now.plusDays(1), now.plusDays(3)));
+    }
+
+    @Test
+    void testAdvisoryModeReadsAvailabilityFromDatabase() {
+        when(bookingLocks.isShared()).thenReturn(true);
+        when(bookingRepository.findIntervalsByItemId(eq(10L), anyList(), eq(now), eq(now.plusDays(10))))
+                .thenReturn(List.of(
+                        new BookingShortDto(1L, now.plusDays(1), now.plusDays(3), 10L, 100L),
+                        new BookingShortDto(9L, now.plusDays(4), now.plusDays(6), 10L, 200L)));
+
+        List<AvailabilityWindow> windows = index.freeWindows(10L, now, now.plusDays(10));
+
+        assertEquals(3, windows.size());
+        assertEquals(now.plusDays(3), windows.get(1).getStart());
+        assertEquals(now.plusDays(4), windows.get(1).getEnd());
+        assertEquals(now.plusDays(6), windows.get(2).getStart());
+    }
+
+    @Test
+    void testAdvisoryModeKeepsNoNodeLocalIntervals() {
+        when(bookingLocks.isShared()).thenReturn(true);
+
+        index.rebuild();
+        index.reserve(4L, 10L, now.plusDays(2), now.plusDays(4));
+
+        assertEquals(0, index.size());
+    }
+
+    private void rebuildWithOverlappingBookings() {
+        when(bookingRepository.findActiveIntervals(anyList(), any(LocalDateTime.class), anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(
+                        new BookingShortDto(1L, now.plusDays(1), now.plusDays(10), 10L, 100L),
+                        new BookingShortDto(2L, now.plusDays(2), now.plusDays(3), 10L, 100L)))
+                .thenReturn(Collections.emptyList());
+        index.rebuild();
+    }
+}
@@ -0,0 +1,101 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class BookingLocksTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        jdbcTemplate = mock(JdbcTemplate.class);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void testLocalLockHeldUntilTransactionCompletes() throws InterruptedException {
+        BookingLocks locks = new BookingLocks("local", 4, jdbcTemplate, meterRegistry);
+        locks.lockItem(1L);
+
+        CountDownLatch otherStripeAcquired = new CountDownLatch(1);
+        CountDownLatch acquired = new CountDownLatch(1);
+        Thread contender = new Thread(() -> {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                locks.lockItem(2L);
+                otherStripeAcquired.countDown();
+                locks.lockItem(5L);
+                acquired.countDown();
+                complete();
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        });
+        contender.start();
+
+        assertTrue(otherStripeAcquired.await(5, TimeUnit.SECONDS));
+        assertFalse(acquired.await(200, TimeUnit.MILLISECONDS));
+        complete();
+        assertTrue(acquired.await(5, TimeUnit.SECONDS));
+        contender.join();
+
+        assertFalse(locks.isShared());
+        assertEquals(1, meterRegistry.get("booking.lock.contended").tag("mode", "local").counter().count());
+        assertEquals(3, meterRegistry.get("booking.lock.wait").timer().count());
+        assertEquals(3, meterRegistry.get("booking.lock.hold").timer().count());
+    }
+
+    @Test
+    void testAdvisoryLockWaitsOnlyWhenTryFails() {
+        BookingLocks locks = new BookingLocks("advisory", 4, jdbcTemplate, meterRegistry);
+        when(jdbcTemplate.queryForObject(eq("SELECT pg_try_advisory_xact_lock(?, ?)"), eq(Boolean.class), anyInt(), eq(1)))
+                .thenReturn(true);
+        when(jdbcTemplate.queryForObject(eq("SELECT pg_try_advisory_xact_lock(?, ?)"), eq(Boolean.class), anyInt(), eq(2)))
+                .thenReturn(false);
+
+        locks.lockItem(1L);
+        locks.lockItem(2L);
+
+        assertTrue(locks.isShared());
+        verify(jdbcTemplate, times(1)).query(eq("SELECT pg_advisory_xact_lock(?, ?)"), any(RowCallbackHandler.class), anyInt(), eq(2));
+        verify(jdbcTemplate, never()).query(eq("SELECT pg_advisory_xact_lock(?, ?)"), any(RowCallbackHandler.class), anyInt(), eq(1));
+        assertEquals(1, meterRegistry.get("booking.lock.contended").tag("mode", "advisory").counter().count());
+        assertEquals(2, meterRegistry.get("booking.lock.wait").timer().count());
+    }
+
+    @Test
+    void testUnknownModeRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new BookingLocks("zookeeper", 4, jdbcTemplate, meterRegistry));
+    }
+
+    private static void complete() {
+        TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+                TransactionSynchronization.STATUS_COMMITTED);
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.initSynchronization();
+    }
+}
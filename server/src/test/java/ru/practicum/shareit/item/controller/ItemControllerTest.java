@@ -8,10 +8,16 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.controller.dto.AvailabilityRequest;
+import ru.practicum.shareit.item.controller.dto.AvailabilityWindow;
+import ru.practicum.shareit.item.controller.dto.ItemAvailability;
 import ru.practicum.shareit.item.controller.dto.ItemRequest;
 import ru.practicum.shareit.item.controller.dto.ItemResponse;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
@@ -93,4 +99,33 @@ public class ItemControllerTest {
         mockMvc.perform(delete("/items/{itemId}", itemId))
                 .andExpect(status().isOk());
     }
+
+    @Test
+    void testGetAvailability() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime to = LocalDateTime.of(2030, 1, 2, 10, 0);
+
+        doReturn(List.of(new AvailabilityWindow(from, to))).when(itemService).getAvailability(1L, from, to);
+
+        mockMvc.perform(get("/items/{itemId}/availability", 1L)
+                        .param("from", "2030-01-01T10:00:00")
+                        .param("to", "2030-01-02T10:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].start").value("2030-01-01T10:00:00"))
+                .andExpect(jsonPath("$[0].end").value("2030-01-02T10:00:00"));
+    }
+
+    @Test
+    void testGetAvailabilityForManyItems() throws Exception {
+        doReturn(List.of(new ItemAvailability(1L, true), new ItemAvailability(2L, false)))
+                .when(itemService).getAvailability(any(AvailabilityRequest.class));
+
+        mockMvc.perform(post("/items/availability")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"itemIds\":[1,2],\"start\":\"2030-01-01T10:00:00\",\"end\":\"2030-01-02T10:00:00\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].itemId").value(1))
+                .andExpect(jsonPath("$[0].free").value(true))
+                .andExpect(jsonPath("$[1].free").value(false));
+    }
 }
@@ -5,9 +5,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import ru.practicum.shareit.item.model.Comment;
@@ -63,20 +63,38 @@ public class CommentRepositoryTest {
         assertThat(comments.get(1)).isEqualTo(comment2);
     }
 
+    @Test
+    void testFindAllByItemIdIn() {
+        List<Comment> comments = commentRepository.findAllByItemIdIn(List.of(item1.getId(), item2.getId()));
+
+        assertThat(comments).hasSize(2);
+        assertThat(comments).containsExactlyInAnyOrder(comment1, comment2);
+    }
+
     @Test
     void testFindAllByItemIdWithPaging() {
         Pageable pageable = PageRequest.of(0, 10, Sort.by("created").descending());
-        Page<Comment> page = commentRepository.findAllByItemId(item1.getId(), pageable);
+        Slice<Comment> page = commentRepository.findAllByItemId(item1.getId(), pageable);
 
-        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(page.getNumberOfElements()).isEqualTo(2);
     }
 
     @Test
     void testFindAllByItemIdWithPaging_NoComments() {
         Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "created"));
-        Page<Comment> page = commentRepository.findAllByItemId(item2.getId(), pageable);
+        Slice<Comment> page = commentRepository.findAllByItemId(item2.getId(), pageable);
 
-        assertThat(page.getTotalElements()).isEqualTo(0);
+        assertThat(page.getNumberOfElements()).isEqualTo(0);
         assertThat(page.getContent()).isEmpty();
     }
+
+    @Test
+    void testFindItemIdsByAuthorId() {
+        commentRepository.save(new Comment(null, "Comment3", item1, user2, LocalDateTime.now()));
+        commentRepository.save(new Comment(null, "Comment4", item2, user2, LocalDateTime.now()));
+
+        assertThat(commentRepository.findItemIdsByAuthorId(user2.getId()))
+                .containsExactlyInAnyOrder(item1.getId(), item2.getId());
+        assertThat(commentRepository.findItemIdsByAuthorId(user1.getId())).containsExactly(item1.getId());
+    }
 }
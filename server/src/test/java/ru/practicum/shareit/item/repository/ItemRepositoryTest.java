@@ -1,10 +1,12 @@
 package ru.practicum.shareit.item.repository;
 
 
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -32,6 +34,9 @@ class ItemRepositoryTest {
     @Autowired
     private ItemRequestRepository itemRequestRepository;
 
+    @Autowired
+    private TestEntityManager entityManager;
+
     private User user1;
     private User user2;
     private Item item1;
@@ -92,18 +97,21 @@ class ItemRepositoryTest {
     }
 
     @Test
-    void testFindByRequestRequesterId() {
-        List<Item> items = itemRepository.findByRequestRequesterId(itemRequest1.getRequester().getId());
+    void testFindWithOwnerByIdLoadsOwner() {
+        entityManager.clear();
 
-        assertThat(items).hasSize(1);
-        assertThat(items.get(0)).isEqualTo(item2);
+        Item item = itemRepository.findWithOwnerById(item1.getId()).orElseThrow();
+
+        assertThat(Hibernate.isInitialized(item.getOwner())).isTrue();
+        assertThat(item.getOwner().getEmail()).isEqualTo(user1.getEmail());
     }
 
     @Test
-    void testFindByRequestRequesterIdNoItems() {
-        List<Item> items = itemRepository.findByRequestRequesterId(999L);
+    void testFindAllByRequestIdIn() {
+        List<Item> items = itemRepository.findAllByRequestIdIn(List.of(itemRequest1.getId(), 999L));
 
-        assertThat(items).isEmpty();
+        assertThat(items).hasSize(1);
+        assertThat(items.get(0).getRequest().getId()).isEqualTo(itemRequest1.getId());
     }
 
     @Test
@@ -125,19 +133,4 @@ class ItemRepositoryTest {
         assertThat(itemsPage.getContent().get(0)).isEqualTo(item3);
     }
 
-    @Test
-    void testSearchItemsByNameOrDescriptionIgnoreCase() {
-        // Given
-        String searchTerm = "item";
-        Pageable pageable = PageRequest.of(0, 10); // Page 0, size 10
-
-        // When
-        Page<Item> resultPage = itemRepository.search(searchTerm, pageable);
-        List<Item> resultList = resultPage.getContent();
-
-        // Then
-        assertThat(resultList).hasSize(3); // Expecting 2 items found
-        assertThat(resultList).extracting(Item::getName).contains("Item1", "Item2", "Another Item");
-    }
-
 }
@@ -0,0 +1,125 @@
+package ru.practicum.shareit.item.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.controller.dto.BookingShortDto;
+import ru.practicum.shareit.item.controller.dto.ItemResponse;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemDetailCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ItemDetailCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ItemDetailCache(1024, meterRegistry);
+    }
+
+    @Test
+    void testOwnerAndPublicViewsAreSeparate() {
+        ItemResponse ownerView = response(1L);
+        ItemResponse publicView = response(1L);
+        cache.putOwnerView(1L, 10L, ownerView, null, cache.generation());
+        cache.putPublicView(1L, 10L, publicView, cache.generation());
+
+        assertSame(ownerView, cache.get(1L, 10L));
+        assertSame(publicView, cache.get(1L, 20L));
+        assertEquals(2, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void testMissCounted() {
+        assertNull(cache.get(1L, 10L));
+        cache.putPublicView(1L, 10L, response(1L), cache.generation());
+        assertNull(cache.get(1L, 10L));
+
+        assertEquals(2, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void testOwnerViewExpires() {
+        cache.putOwnerView(1L, 10L, response(1L), LocalDateTime.now().minusSeconds(1), cache.generation());
+
+        assertNull(cache.get(1L, 10L));
+    }
+
+    @Test
+    void testInvalidate() {
+        cache.putPublicView(1L, 10L, response(1L), cache.generation());
+        cache.putPublicView(2L, 10L, response(2L), cache.generation());
+
+        cache.invalidate(1L);
+
+        assertNull(cache.get(1L, 20L));
+        assertNotNull(cache.get(2L, 20L));
+    }
+
+    @Test
+    void testInvalidateOwner() {
+        cache.putPublicView(1L, 10L, response(1L), cache.generation());
+        cache.putPublicView(2L, 10L, response(2L), cache.generation());
+        cache.putPublicView(3L, 11L, response(3L), cache.generation());
+
+        cache.invalidateOwner(10L);
+
+        assertNull(cache.get(1L, 20L));
+        assertNull(cache.get(2L, 20L));
+        assertNotNull(cache.get(3L, 20L));
+        assertEquals(1, cache.size());
+        assertTrue(cache.weight() > 0);
+    }
+
+    @Test
+    void testStaleLoadIsNotCached() {
+        long generation = cache.generation();
+        cache.invalidate(1L);
+        cache.putPublicView(1L, 10L, response(1L), generation);
+
+        assertNull(cache.get(1L, 20L));
+    }
+
+    @Test
+    void testLoadOfOtherItemSurvivesInvalidation() {
+        long generation = cache.generation();
+        cache.invalidate(1L);
+        cache.putPublicView(2L, 10L, response(2L), generation);
+
+        assertNotNull(cache.get(2L, 20L));
+    }
+
+    @Test
+    void testStaleLoadOfInvalidatedOwnerIsNotCached() {
+        long generation = cache.generation();
+        cache.invalidateOwner(10L);
+        cache.putOwnerView(1L, 10L, response(1L), null, generation);
+        cache.putPublicView(2L, 11L, response(2L), generation);
+
+        assertNull(cache.get(1L, 10L));
+        assertNotNull(cache.get(2L, 20L));
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsedByWeight() {
+        for (long id = 1; id <= 10; id++) {
+            cache.putPublicView(id, 10L, response(id), cache.generation());
+        }
+
+        assertTrue(cache.weight() <= 1024);
+        assertTrue(cache.size() < 10);
+        assertNull(cache.get(1L, 20L));
+        assertNotNull(cache.get(10L, 20L));
+        assertTrue(meterRegistry.get("cache.evictions").functionCounter().count() > 0);
+    }
+
+    private ItemResponse response(Long id) {
+        return new ItemResponse(id, "Item " + id, "Description of item " + id, true, null,
+                null, BookingShortDto.builder().id(id).build(), Collections.emptyList());
+    }
+}
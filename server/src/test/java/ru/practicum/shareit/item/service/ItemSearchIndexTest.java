@@ -0,0 +1,147 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSearchIndexTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @InjectMocks
+    private ItemSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        when(itemRepository.findAllByIdGreaterThan(anyLong(), any(Pageable.class))).thenReturn(List.of(
+                item(1L, "Дрель", "Простая дрель", true),
+                item(2L, "Отвертка", "Аккумуляторная отвертка", true),
+                item(3L, "Аккумуляторная дрель", "Дрель с аккумулятором", true),
+                item(4L, "Дрель ударная", "Сломана", false)
+        )).thenReturn(Collections.emptyList());
+        index.rebuild();
+    }
+
+    @Test
+    void testSearchIsCaseInsensitiveAndSkipsUnavailable() {
+        assertEquals(List.of(1L, 3L), index.search("дРелЬ", 0, 10));
+    }
+
+    @Test
+    void testSearchMatchesTokenPrefixes() {
+        assertEquals(List.of(2L, 3L), index.search("аккум", 0, 10));
+    }
+
+    @Test
+    void testSearchRequiresAllTokens() {
+        assertEquals(List.of(3L), index.search("аккумуляторная дрель", 0, 10));
+    }
+
+    @Test
+    void testSearchPaging() {
+        assertEquals(List.of(3L), index.search("дрель", 1, 1));
+        assertTrue(index.search("дрель", 2, 10).isEmpty());
+    }
+
+    @Test
+    void testSearchAfter() {
+        assertEquals(List.of(3L), index.searchAfter("дрель", 1L, 10));
+        assertTrue(index.searchAfter("дрель", 3L, 10).isEmpty());
+    }
+
+    @Test
+    void testIndexAndRemove() {
+        index.index(item(4L, "Дрель ударная", "Починена", true));
+        assertEquals(List.of(1L, 3L, 4L), index.search("дрель", 0, 10));
+
+        index.index(item(1L, "Молоток", "Тяжелый", true));
+        assertEquals(List.of(3L, 4L), index.search("дрель", 0, 10));
+
+        index.remove(3L);
+        assertEquals(List.of(4L), index.search("дрель", 0, 10));
+    }
+
+    @Test
+    void testSearchDrivesByRarestTokenAndProbesOthers() {
+        assertEquals(List.of(3L), index.search("д аккумулятором", 0, 10));
+        assertEquals(List.of(3L), index.searchAfter("а д", 1L, 10));
+        assertTrue(index.search("д пила", 0, 10).isEmpty());
+    }
+
+    @Test
+    void testIndexBuiltBeforeServing() {
+        when(itemRepository.findAllByIdGreaterThan(anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(item(9L, "Пила", "Ножовка", true)))
+                .thenReturn(Collections.emptyList());
+
+        index.afterSingletonsInstantiated();
+
+        assertEquals(List.of(9L), index.search("пила", 0, 10));
+        assertTrue(index.search("дрель", 0, 10).isEmpty());
+    }
+
+    @Test
+    void testSearchBlankText() {
+        assertTrue(index.search("  ", 0, 10).isEmpty());
+    }
+
+    @Test
+    void testRankOrdersByRelevanceAndExcludesOwner() {
+        index.index(item(5L, "Аккумуляторная дрель", "Мощная", true, 7L));
+        index.index(item(6L, "Шуруповерт", "Аккумуляторный", true, 8L));
+
+        assertEquals(List.of(3L, 5L, 1L), index.rank("Нужна аккумуляторная дрель", null, 3));
+        assertEquals(List.of(3L, 1L, 2L), index.rank("Нужна аккумуляторная дрель", 7L, 10));
+    }
+
+    @Test
+    void testRankIgnoresShortTokensAndUnmatchedText() {
+        assertTrue(index.rank("на", null, 10).isEmpty());
+        assertTrue(index.rank("пила", null, 10).isEmpty());
+        assertTrue(index.rank("дрель", null, 0).isEmpty());
+    }
+
+    @Test
+    void testRankSkipsTokensMatchingManyItems() {
+        for (long id = 10; id < 70; id++) {
+            index.index(item(id, "Продам вещь " + id, "Недорого", true));
+        }
+        index.index(item(70L, "Продам стремянку", "Почти новая", true));
+
+        assertEquals(List.of(70L), index.rank("Продам стремянку недорого", null, 10));
+        assertTrue(index.rank("продам недорого", null, 10).isEmpty());
+    }
+
+    private Item item(Long id, String name, String description, Boolean available, Long ownerId) {
+        Item item = item(id, name, description, available);
+        item.setOwner(User.builder().id(ownerId).build());
+        return item;
+    }
+
+    private Item item(Long id, String name, String description, Boolean available) {
+        return Item.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .available(available)
+                .build();
+    }
+}
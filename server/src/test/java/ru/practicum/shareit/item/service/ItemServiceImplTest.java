@@ -10,11 +10,16 @@ import ru.practicum.shareit.booking.controller.dto.BookingShortDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
 import ru.practicum.shareit.exception.DataNotFoundException;
 import ru.practicum.shareit.exception.NotCorrectRequestException;
+import ru.practicum.shareit.item.controller.dto.AvailabilityRequest;
+import ru.practicum.shareit.item.controller.dto.AvailabilityWindow;
 import ru.practicum.shareit.item.controller.dto.CommentRequest;
 import ru.practicum.shareit.item.controller.dto.CommentResponse;
+import ru.practicum.shareit.item.controller.dto.ItemAvailability;
 import ru.practicum.shareit.item.controller.dto.ItemRequest;
 import ru.practicum.shareit.item.controller.dto.ItemResponse;
 import ru.practicum.shareit.item.mapper.CommentMapper;
@@ -24,8 +29,9 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.service.ItemRequestFeed;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserCache;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -44,11 +50,14 @@ class ItemServiceImplTest {
     private ItemRepository itemRepository;
 
     @Mock
-    private UserRepository userRepository;
+    private UserCache userCache;
 
     @Mock
     private BookingRepository bookingRepository;
 
+    @Mock
+    private ArchivedBookingRepository archivedBookingRepository;
+
     @Mock
     private BookingMapper bookingMapper;
 
@@ -64,6 +73,18 @@ class ItemServiceImplTest {
     @Mock
     private ItemRequestRepository itemRequestRepository;
 
+    @Mock
+    private ItemSearchIndex itemSearchIndex;
+
+    @Mock
+    private ItemDetailCache itemDetailCache;
+
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    @Mock
+    private ItemRequestFeed itemRequestFeed;
+
     @InjectMocks
     private ItemServiceImpl itemService;
 
@@ -73,7 +94,7 @@ class ItemServiceImplTest {
         ItemRequest itemRequest = new ItemRequest(null, "Test Item", "Test description", true, userId, null, null, null, null);
 
         User user = User.builder().id(userId).build();
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userCache.find(userId)).thenReturn(Optional.of(user));
 
         Item item = Item.builder()
                 .id(1L)
@@ -94,8 +115,9 @@ class ItemServiceImplTest {
         assertEquals(item.getId(), response.getId());
         assertEquals(item.getName(), response.getName());
         assertEquals(item.getDescription(), response.getDescription());
-        verify(userRepository, times(1)).findById(userId);
+        verify(userCache, times(1)).find(userId);
         verify(itemRepository, times(1)).save(item);
+        verify(itemSearchIndex, times(1)).index(item);
     }
 
     @Test
@@ -104,7 +126,7 @@ class ItemServiceImplTest {
         ItemRequest itemRequest = new ItemRequest(null, "Test Item", "Test description", true, userId, 1L, null, null, null);
 
         User user = User.builder().id(userId).build();
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userCache.find(userId)).thenReturn(Optional.of(user));
         ru.practicum.shareit.request.model.ItemRequest itemRequest1 = ru.practicum.shareit.request.model.ItemRequest.builder()
                 .id(1L)
                 .requester(user)
@@ -132,8 +154,9 @@ class ItemServiceImplTest {
         assertEquals(item.getName(), response.getName());
         assertEquals(item.getDescription(), response.getDescription());
         assertEquals(item.getRequest().getId(), response.getRequestId());
-        verify(userRepository, times(1)).findById(userId);
+        verify(userCache, times(1)).find(userId);
         verify(itemRepository, times(1)).save(item);
+        verify(itemRequestFeed, times(1)).putItem(item);
     }
 
     @Test
@@ -173,6 +196,7 @@ class ItemServiceImplTest {
         assertFalse(response.getAvailable());
         verify(itemRepository, times(1)).findById(itemId);
         verify(itemRepository, times(1)).save(any(Item.class));
+        verify(itemDetailCache, times(1)).invalidate(itemId);
     }
 
 
@@ -194,6 +218,8 @@ class ItemServiceImplTest {
         assertTrue(result);
         verify(itemRepository, times(1)).findById(itemId);
         verify(itemRepository, times(1)).deleteById(itemId);
+        verify(itemSearchIndex, times(1)).remove(itemId);
+        verify(itemRequestFeed, times(1)).removeItem(item);
     }
 
     @Test
@@ -295,22 +321,22 @@ class ItemServiceImplTest {
                 .itemId(item.getId())
                 .build());
 
-        Booking booking = Booking.builder()
+        BookingShortDto lastBooking = BookingShortDto.builder()
                 .id(1L)
                 .start(LocalDateTime.now().minusDays(1))
                 .end(LocalDateTime.now())
-                .item(item)
-                .booker(user)
+                .itemId(itemId)
+                .bookerId(user.getId())
                 .build();
-        when(bookingRepository.findAllByItemIdAndStartBefore(anyLong(), any(LocalDateTime.class), any(Sort.class))).thenReturn(List.of(booking));
-        when(bookingMapper.toBookingShortDtoFromBooking(booking)).thenReturn(BookingShortDto.builder()
-                .id(booking.getId())
-                .start(booking.getStart())
-                .end(booking.getEnd())
-                .itemId(booking.getItem().getId())
-                .bookerId(booking.getBooker().getId())
-                .build());
-        when(bookingRepository.findAllByItemIdAndStartAfter(anyLong(), any(LocalDateTime.class), any(Sort.class))).thenReturn(List.of(booking));
+        BookingShortDto nextBooking = BookingShortDto.builder()
+                .id(2L)
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .itemId(itemId)
+                .bookerId(user.getId())
+                .build();
+        when(bookingRepository.findLastAndNextBookingsByItemId(anyLong(), any(LocalDateTime.class)))
+                .thenReturn(List.of(lastBooking, nextBooking));
 
         ItemResponse response = itemService.get(item.getId(), item.getOwner().getId());
 
@@ -320,11 +346,51 @@ class ItemServiceImplTest {
         assertEquals(itemResponse.getDescription(), response.getDescription());
         assertEquals(1, response.getComments().size());
         assertEquals("Test comment", response.getComments().get(0).getText());
-        assertNotNull(response.getLastBooking());
+        assertEquals(lastBooking, response.getLastBooking());
+        assertEquals(nextBooking, response.getNextBooking());
+        verify(bookingRepository, times(1)).findLastAndNextBookingsByItemId(anyLong(), any(LocalDateTime.class));
         verify(itemRepository, times(1)).findById(item.getId());
         verify(commentRepository, times(1)).findAllByItemId(item.getId());
     }
 
+    @Test
+    void testGetItemFromCache() {
+        Long itemId = 1L;
+        Long userId = 2L;
+        ItemResponse cached = new ItemResponse(itemId, "Test Item", "Test description", true, null, null, null, Collections.emptyList());
+        when(itemDetailCache.get(itemId, userId)).thenReturn(cached);
+
+        ItemResponse response = itemService.get(itemId, userId);
+
+        assertSame(cached, response);
+        verifyNoInteractions(itemRepository, commentRepository, bookingRepository);
+    }
+
+    @Test
+    void testGetItemCachesPublicView() {
+        Long itemId = 1L;
+        Long ownerId = 1L;
+        Long userId = 2L;
+        Item item = Item.builder()
+                .id(itemId)
+                .name("Test Item")
+                .description("Test description")
+                .available(true)
+                .owner(User.builder().id(ownerId).build())
+                .build();
+        ItemResponse itemResponse = new ItemResponse(itemId, item.getName(), item.getDescription(), item.getAvailable(), null, null, null, null);
+        when(itemDetailCache.generation()).thenReturn(7L);
+        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+        when(itemMapper.toItemResponse(item)).thenReturn(itemResponse);
+        when(commentRepository.findAllByItemId(itemId)).thenReturn(Collections.emptyList());
+
+        ItemResponse response = itemService.get(itemId, userId);
+
+        assertSame(itemResponse, response);
+        verify(itemDetailCache, times(1)).putPublicView(itemId, ownerId, itemResponse, 7L);
+        verifyNoInteractions(bookingRepository);
+    }
+
     @Test
     void testGetItemWithInvalidUser() {
         Long itemId = 1L;
@@ -356,7 +422,7 @@ class ItemServiceImplTest {
         User user = User.builder().id(userId).name("name").build();
         Item item = Item.builder().id(itemId).owner(user).build();
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userCache.find(userId)).thenReturn(Optional.of(user));
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
 
         Comment comment = Comment.builder()
@@ -391,12 +457,33 @@ class ItemServiceImplTest {
 
         assertNotNull(createdComment);
         assertEquals("Test comment", createdComment.getText());
-        verify(userRepository, times(1)).findById(userId);
+        verify(userCache, times(1)).find(userId);
         verify(itemRepository, times(1)).findById(itemId);
         verify(commentMapper, times(1)).toComment(commentRequest); // Проверяем вызов маппера
         verify(commentRepository, times(1)).save(any(Comment.class)); // Проверяем вызов save с любым Comment
     }
 
+    @Test
+    void testAddCommentToItemWithArchivedBooking() {
+        User user = User.builder().id(1L).name("name").build();
+        Item item = Item.builder().id(1L).owner(user).build();
+        CommentRequest commentRequest = new CommentRequest(null, "Test comment", null, 1L, 1L, null);
+        Comment comment = Comment.builder().id(1L).text("Test comment").author(user).item(item).build();
+
+        when(userCache.find(1L)).thenReturn(Optional.of(user));
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(bookingRepository.findAllByBookerIdAndItemIdAndStatusEqualsAndEndIsBefore(anyLong(), anyLong(), any(BookingStatus.class), any(LocalDateTime.class)))
+                .thenReturn(List.of());
+        when(archivedBookingRepository.existsByBookerIdAndItemIdAndStatusAndEndBefore(eq(1L), eq(1L), eq(BookingStatus.APPROVED), any(LocalDateTime.class)))
+                .thenReturn(true);
+        when(commentMapper.toComment(commentRequest)).thenReturn(comment);
+        when(commentRepository.save(any(Comment.class))).thenReturn(comment);
+
+        itemService.createComment(1L, 1L, commentRequest);
+
+        verify(commentRepository, times(1)).save(comment);
+    }
+
     @Test
     void testAddCommentToItemBookingEmpty() {
         Long userId = 1L;
@@ -406,7 +493,7 @@ class ItemServiceImplTest {
         User user = User.builder().id(userId).name("name").build();
         Item item = Item.builder().id(itemId).owner(user).build();
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userCache.find(userId)).thenReturn(Optional.of(user));
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
 
         Comment comment = Comment.builder()
@@ -427,10 +514,10 @@ class ItemServiceImplTest {
         Long itemId = 1L;
         CommentRequest commentRequest = new CommentRequest(null, "Test comment", null, userId, itemId, null);
 
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(userCache.find(userId)).thenReturn(Optional.empty());
 
         assertThrows(DataNotFoundException.class, () -> itemService.createComment(userId, itemId, commentRequest));
-        verify(userRepository, times(1)).findById(userId);
+        verify(userCache, times(1)).find(userId);
         verify(itemRepository, never()).findById(itemId);
         verify(commentRepository, never()).save(any(Comment.class));
     }
@@ -456,17 +543,17 @@ class ItemServiceImplTest {
         String searchName = "Description";
         int from = 0;
         int size = 2;
-        Pageable pageable = PageRequest.of(from / size, size);
         List<Item> items = List.of(item1, item2);
-        when(itemRepository.search(searchName, pageable)).thenReturn(new PageImpl<>(items));
-        when(itemMapper.toItemResponseOfList(anyList())).thenReturn(List.of(itemResponse1, itemResponse2));
+        when(itemSearchIndex.search(searchName, from, size)).thenReturn(List.of(2L, 1L));
+        when(itemRepository.findAllById(List.of(2L, 1L))).thenReturn(items);
+        when(itemMapper.toItemResponseOfList(anyList())).thenReturn(List.of(itemResponse2, itemResponse1));
 
         List<ItemResponse> responses = itemService.searchItem(searchName, from, size);
 
         assertNotNull(responses);
         assertEquals(2, responses.size());
-        verify(itemRepository, times(1)).search(searchName, pageable);
-        verify(itemMapper, times(1)).toItemResponseOfList(items);
+        verify(itemSearchIndex, times(1)).search(searchName, from, size);
+        verify(itemMapper, times(1)).toItemResponseOfList(List.of(item2, item1));
     }
 
     @Test
@@ -576,17 +663,17 @@ class ItemServiceImplTest {
         when(itemMapper.toItemResponse(item1)).thenReturn(itemResponse1);
         when(itemMapper.toItemResponse(item2)).thenReturn(itemResponse2);
 
-        when(bookingRepository.findAllByItemIdInAndStartBefore(anyList(), any(LocalDateTime.class), any(Sort.class)))
+        when(bookingRepository.findLastBookingsByItemIdIn(anyList(), any(LocalDateTime.class)))
                 .thenReturn(List.of(lastBooking));
 
         when(bookingMapper.toBookingShortDtoFromBooking(lastBooking)).thenReturn(lastBookingDto);
 
-        when(bookingRepository.findAllByItemIdAndStartAfter(anyLong(), any(LocalDateTime.class), any(Sort.class)))
+        when(bookingRepository.findNextBookingsByItemIdIn(anyList(), any(LocalDateTime.class)))
                 .thenReturn(List.of(nextBooking));
 
         when(bookingMapper.toBookingShortDtoFromBooking(nextBooking)).thenReturn(nextBookingDto);
 
-        when(commentRepository.findAllByItemId(item1.getId())).thenReturn(List.of(comment));
+        when(commentRepository.findAllByItemIdIn(List.of(item1.getId(), item2.getId()))).thenReturn(List.of(comment));
         when(commentMapper.toCommentResponse(comment)).thenReturn(commentResponse);
 
         List<ItemResponse> responses = itemService.getAllByUser(userId, 0, 10);
@@ -607,9 +694,69 @@ class ItemServiceImplTest {
         assertNull(response2.getNextBooking());
         assertEquals(0, response2.getComments().size());
 
-        verify(bookingRepository, times(1)).findAllByItemIdInAndStartBefore(anyList(), any(LocalDateTime.class), any(Sort.class));
-        verify(bookingRepository, times(1)).findAllByItemIdAndStartAfter(anyLong(), any(LocalDateTime.class), any(Sort.class));
-        verify(commentRepository, times(2)).findAllByItemId(anyLong());
+        verify(bookingRepository, times(1)).findLastBookingsByItemIdIn(anyList(), any(LocalDateTime.class));
+        verify(bookingRepository, times(1)).findNextBookingsByItemIdIn(anyList(), any(LocalDateTime.class));
+        verify(commentRepository, times(1)).findAllByItemIdIn(anyList());
+        verify(commentRepository, never()).findAllByItemId(anyLong());
+    }
+
+    @Test
+    void testGetItemPrefersNewerArchivedLastBooking() {
+        Long userId = 1L;
+        Item item = Item.builder().id(1L).name("Item").available(true).owner(User.builder().id(userId).build()).build();
+        ItemResponse itemResponse = ItemResponse.builder().id(item.getId()).build();
+        BookingShortDto staleWaiting = BookingShortDto.builder().id(1L).itemId(1L)
+                .start(LocalDateTime.now().minusDays(400)).build();
+        BookingShortDto archivedApproved = BookingShortDto.builder().id(2L).itemId(1L)
+                .start(LocalDateTime.now().minusDays(300)).build();
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(itemMapper.toItemResponse(item)).thenReturn(itemResponse);
+        when(bookingRepository.findLastAndNextBookingsByItemId(anyLong(), any(LocalDateTime.class)))
+                .thenReturn(List.of(staleWaiting));
+        when(archivedBookingRepository.findLastBookingsByItemIdIn(List.of(item.getId())))
+                .thenReturn(List.of(archivedApproved));
+
+        assertEquals(archivedApproved, itemService.get(item.getId(), userId).getLastBooking());
+    }
+
+    @Test
+    void testGetAllByUserPrefersNewerArchivedLastBooking() {
+        Long userId = 1L;
+        Item item = Item.builder().id(1L).name("Item").available(true).owner(User.builder().id(userId).build()).build();
+        ItemResponse itemResponse = ItemResponse.builder().id(item.getId()).build();
+        Booking staleWaiting = Booking.builder().id(1L).item(item).start(LocalDateTime.now().minusDays(400)).build();
+        BookingShortDto staleWaitingDto = BookingShortDto.builder().id(1L).itemId(1L)
+                .start(staleWaiting.getStart()).build();
+        BookingShortDto archivedApproved = BookingShortDto.builder().id(2L).itemId(1L)
+                .start(LocalDateTime.now().minusDays(300)).build();
+        Pageable page = PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "id"));
+        when(itemRepository.findAllByOwnerId(userId, page)).thenReturn(new PageImpl<>(List.of(item)));
+        when(itemMapper.toItemResponse(item)).thenReturn(itemResponse);
+        when(bookingRepository.findLastBookingsByItemIdIn(anyList(), any(LocalDateTime.class))).thenReturn(List.of(staleWaiting));
+        when(bookingMapper.toBookingShortDtoFromBooking(staleWaiting)).thenReturn(staleWaitingDto);
+        when(archivedBookingRepository.findLastBookingsByItemIdIn(List.of(item.getId()))).thenReturn(List.of(archivedApproved));
+
+        List<ItemResponse> responses = itemService.getAllByUser(userId, 0, 10);
+
+        assertEquals(archivedApproved, responses.get(0).getLastBooking());
+    }
+
+    @Test
+    void testGetAllByUserSkipsNextBookingWithoutLastBooking() {
+        Long userId = 1L;
+        Item item = Item.builder().id(1L).name("Item").available(true).owner(User.builder().id(userId).build()).build();
+        ItemResponse itemResponse = ItemResponse.builder().id(item.getId()).build();
+        Booking nextBooking = Booking.builder().id(2L).item(item).start(LocalDateTime.now().plusDays(1)).build();
+        Pageable page = PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "id"));
+        when(itemRepository.findAllByOwnerId(userId, page)).thenReturn(new PageImpl<>(List.of(item)));
+        when(itemMapper.toItemResponse(item)).thenReturn(itemResponse);
+        when(bookingRepository.findNextBookingsByItemIdIn(anyList(), any(LocalDateTime.class))).thenReturn(List.of(nextBooking));
+
+        List<ItemResponse> responses = itemService.getAllByUser(userId, 0, 10);
+
+        assertNull(responses.get(0).getLastBooking());
+        assertNull(responses.get(0).getNextBooking());
+        verify(bookingMapper, never()).toBookingShortDtoFromBooking(nextBooking);
     }
 
     @Test
@@ -741,4 +888,56 @@ class ItemServiceImplTest {
         verify(itemRepository, times(1)).save(any(Item.class));
         verify(itemMapper, times(1)).toItemResponse(any(Item.class));
     }
+
+    @Test
+    void testGetAvailabilityClampsPastStartToNow() {
+        LocalDateTime from = LocalDateTime.now().minusDays(1);
+        LocalDateTime to = LocalDateTime.now().plusDays(1);
+        List<AvailabilityWindow> windows = List.of(new AvailabilityWindow(LocalDateTime.now(), to));
+        when(itemRepository.existsById(1L)).thenReturn(true);
+        when(bookingIntervalIndex.freeWindows(eq(1L), argThat(start -> start.isAfter(from)), eq(to))).thenReturn(windows);
+
+        assertEquals(windows, itemService.getAvailability(1L, from, to));
+    }
+
+    @Test
+    void testGetAvailabilityRejectsEmptyPeriod() {
+        LocalDateTime from = LocalDateTime.now().plusDays(1);
+
+        assertThrows(NotCorrectRequestException.class, () -> itemService.getAvailability(1L, from, from));
+        verify(bookingIntervalIndex, never()).freeWindows(anyLong(), any(), any());
+    }
+
+    @Test
+    void testGetAvailabilityItemNotFound() {
+        when(itemRepository.existsById(1L)).thenReturn(false);
+
+        assertThrows(DataNotFoundException.class,
+                () -> itemService.getAvailability(1L, LocalDateTime.now(), LocalDateTime.now().plusDays(1)));
+    }
+
+    @Test
+    void testGetAvailabilityForManyItems() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        LocalDateTime end = start.plusDays(2);
+        when(bookingRepository.findBookedItemIds(List.of(1L, 2L, 3L),
+                List.of(BookingStatus.WAITING, BookingStatus.APPROVED), start, end)).thenReturn(List.of(2L));
+
+        List<ItemAvailability> result = itemService.getAvailability(new AvailabilityRequest(List.of(1L, 2L, 3L, 2L), start, end));
+
+        assertEquals(3, result.size());
+        assertEquals(1L, result.get(0).getItemId());
+        assertTrue(result.get(0).getFree());
+        assertFalse(result.get(1).getFree());
+        assertTrue(result.get(2).getFree());
+    }
+
+    @Test
+    void testGetAvailabilityForManyItemsRejectsEmptyPeriod() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        assertThrows(NotCorrectRequestException.class,
+                () -> itemService.getAvailability(new AvailabilityRequest(List.of(1L), start, start)));
+        verify(bookingRepository, never()).findBookedItemIds(any(), any(), any(), any());
+    }
 }
@@ -4,9 +4,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
@@ -86,9 +86,9 @@ class ItemRequestRepositoryTest {
     @Test
     void testFindByRequesterIdNotWithPageable() {
         Pageable pageable = PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "creationDate"));
-        Page<ItemRequest> requestsPage = itemRequestRepository.findByRequesterIdNot(user1.getId(), pageable);
+        Slice<ItemRequest> requestsPage = itemRequestRepository.findByRequesterIdNot(user1.getId(), pageable);
 
-        assertThat(requestsPage.getTotalElements()).isEqualTo(1);
+        assertThat(requestsPage.getNumberOfElements()).isEqualTo(1);
         assertThat(requestsPage.getContent()).hasSize(1);
         assertThat(requestsPage.getContent().get(0)).isEqualTo(request2);
     }
@@ -96,9 +96,9 @@ class ItemRequestRepositoryTest {
     @Test
     void testFindByRequesterIdNotWithEmptyPage() {
         Pageable pageable = PageRequest.of(1, 1, Sort.by(Sort.Direction.DESC, "creationDate"));
-        Page<ItemRequest> requestsPage = itemRequestRepository.findByRequesterIdNot(user1.getId(), pageable);
+        Slice<ItemRequest> requestsPage = itemRequestRepository.findByRequesterIdNot(user1.getId(), pageable);
 
-        assertThat(requestsPage.getTotalElements()).isEqualTo(1);
+        assertThat(requestsPage.hasNext()).isFalse();
         assertThat(requestsPage.getContent()).hasSize(0);
     }
 }
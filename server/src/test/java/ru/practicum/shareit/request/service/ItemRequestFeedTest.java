@@ -0,0 +1,152 @@
+package ru.practicum.shareit.request.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.item.controller.dto.ItemResponse;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.controller.dto.ItemRequestDtoWithItems;
+import ru.practicum.shareit.request.mapper.ItemRequestMapper;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemRequestFeedTest {
+
+    @Mock
+    private ItemRequestRepository itemRequestRepository;
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private ItemRequestMapper mapper;
+
+    @Test
+    void testPageSkipsOwnRequestsNewestFirst() {
+        ItemRequestFeed feed = feed(10, request(1L, 1L), request(2L, 2L), request(3L, 1L), request(4L, 2L));
+
+        assertEquals(List.of(3L, 1L), ids(feed.page(2L, Long.MAX_VALUE, 0, 10)));
+        assertEquals(List.of(2L), ids(feed.page(1L, Long.MAX_VALUE, 1, 1)));
+        assertEquals(List.of(1L), ids(feed.page(2L, 3L, 0, 10)));
+    }
+
+    @Test
+    void testPageAttachesItemsToTheirRequest() {
+        ItemRequest request = request(1L, 1L);
+        Item item = Item.builder().id(7L).name("Drill").request(request).build();
+        when(itemRepository.findAllByRequestIdIn(List.of(1L))).thenReturn(List.of(item));
+        when(mapper.toItemResponse(item)).thenReturn(itemResponse(7L, "Drill", 1L));
+        ItemRequestFeed feed = feed(10, request);
+
+        List<ItemRequestDtoWithItems> page = feed.page(2L, Long.MAX_VALUE, 0, 10).orElseThrow();
+
+        assertEquals(1, page.get(0).getItems().size());
+        assertEquals(7L, page.get(0).getItems().get(0).getId());
+    }
+
+    @Test
+    void testAddAndPutItemUpdateFeedIncrementally() {
+        ItemRequestFeed feed = feed(10, request(1L, 1L));
+        ItemRequest created = request(2L, 1L);
+        Item item = Item.builder().id(8L).name("Saw").request(created).build();
+        when(mapper.toItemResponse(item)).thenReturn(itemResponse(8L, "Saw", 2L));
+
+        feed.add(created);
+        feed.putItem(item);
+        feed.putItem(Item.builder().id(9L).build());
+
+        List<ItemRequestDtoWithItems> page = feed.page(2L, Long.MAX_VALUE, 0, 10).orElseThrow();
+        assertEquals(List.of(2L, 1L), page.stream().map(ItemRequestDtoWithItems::getId).collect(Collectors.toList()));
+        assertEquals("Saw", page.get(0).getItems().get(0).getName());
+    }
+
+    @Test
+    void testTruncatedFeedDefersToDatabasePastItsTail() {
+        ItemRequestFeed feed = feed(2, request(1L, 1L), request(2L, 1L), request(3L, 1L));
+
+        assertEquals(2, feed.size());
+        assertEquals(List.of(3L, 2L), ids(feed.page(2L, Long.MAX_VALUE, 0, 2)));
+        assertTrue(feed.page(2L, Long.MAX_VALUE, 0, 3).isEmpty());
+
+        feed.add(request(4L, 1L));
+
+        assertEquals(2, feed.size());
+        assertTrue(feed.page(2L, Long.MAX_VALUE, 2, 1).isEmpty());
+    }
+
+    @Test
+    void testRemoveItemDetachesItFromItsRequest() {
+        ItemRequest request = request(1L, 1L);
+        Item drill = Item.builder().id(7L).name("Drill").request(request).build();
+        Item saw = Item.builder().id(8L).name("Saw").request(request).build();
+        when(itemRepository.findAllByRequestIdIn(List.of(1L))).thenReturn(List.of(drill, saw));
+        when(mapper.toItemResponse(drill)).thenReturn(itemResponse(7L, "Drill", 1L));
+        when(mapper.toItemResponse(saw)).thenReturn(itemResponse(8L, "Saw", 1L));
+        ItemRequestFeed feed = feed(10, request);
+
+        feed.removeItem(drill);
+        feed.removeItem(Item.builder().id(9L).build());
+
+        List<ItemRequestDtoWithItems> page = feed.page(2L, Long.MAX_VALUE, 0, 10).orElseThrow();
+        assertEquals(1, page.get(0).getItems().size());
+        assertEquals("Saw", page.get(0).getItems().get(0).getName());
+    }
+
+    @Test
+    void testRemoveRequesterDropsTheirRequests() {
+        ItemRequestFeed feed = feed(10, request(1L, 1L), request(2L, 3L));
+
+        feed.removeRequester(3L);
+
+        assertEquals(List.of(1L), ids(feed.page(2L, Long.MAX_VALUE, 0, 10)));
+    }
+
+    @Test
+    void testNotLoadedFeedDefersToDatabase() {
+        ItemRequestFeed feed = new ItemRequestFeed(10, itemRequestRepository, itemRepository, mapper);
+
+        assertTrue(feed.page(1L, Long.MAX_VALUE, 0, 10).isEmpty());
+    }
+
+    private ItemRequestFeed feed(int capacity, ItemRequest... requests) {
+        List<ItemRequest> newestFirst = List.of(requests).stream()
+                .sorted((first, second) -> Long.compare(second.getId(), first.getId()))
+                .collect(Collectors.toList());
+        when(itemRequestRepository.findAllBy(any(Pageable.class))).thenReturn(new SliceImpl<>(newestFirst));
+        ItemRequestFeed feed = new ItemRequestFeed(capacity, itemRequestRepository, itemRepository, mapper);
+        feed.rebuild();
+        return feed;
+    }
+
+    private static ItemRequest request(Long id, Long requesterId) {
+        return ItemRequest.builder()
+                .id(id)
+                .description("Request " + id)
+                .requester(User.builder().id(requesterId).build())
+                .creationDate(LocalDateTime.now().minusDays(10 - id))
+                .build();
+    }
+
+    private static ItemResponse itemResponse(Long id, String name, Long requestId) {
+        return new ItemResponse(id, name, null, true, requestId, null, null, null);
+    }
+
+    private static List<Long> ids(Optional<List<ItemRequestDtoWithItems>> page) {
+        return page.orElseThrow().stream().map(ItemRequestDtoWithItems::getId).collect(Collectors.toList());
+    }
+}
@@ -2,12 +2,16 @@ package ru.practicum.shareit.request.service;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemSearchIndex;
 import ru.practicum.shareit.request.controller.dto.ItemRequestDto;
 import ru.practicum.shareit.request.controller.dto.ItemRequestDtoWithItems;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
@@ -40,6 +44,12 @@ class ItemRequestServiceImplTest {
     @Mock
     private ItemRequestMapper mapper;
 
+    @Mock
+    private ItemRequestFeed itemRequestFeed;
+
+    @Mock
+    private ItemSearchIndex itemSearchIndex;
+
     @InjectMocks
     private ItemRequestServiceImpl itemRequestService;
 
@@ -51,7 +61,7 @@ class ItemRequestServiceImplTest {
     @Test
     void testCreateItemRequest() {
         Long requesterId = 1L;
-        ItemRequestDto itemRequestDto = new ItemRequestDto(null, "Test Item Request", requesterId, LocalDateTime.now());
+        ItemRequestDto itemRequestDto = new ItemRequestDto(null, "Test Item Request", requesterId, LocalDateTime.now(), null);
         UserResponse requesterResponse = UserResponse.builder().id(requesterId).build();
         User requester = User.builder()
                 .id(requesterId)
@@ -62,7 +72,7 @@ class ItemRequestServiceImplTest {
                 .requester(requester)
                 .creationDate(LocalDateTime.now())
                 .build();
-        ItemRequestDto expectedDto = new ItemRequestDto(1L, "Test Item Request", requesterId, LocalDateTime.now());
+        ItemRequestDto expectedDto = new ItemRequestDto(1L, "Test Item Request", requesterId, LocalDateTime.now(), null);
 
         when(userService.get(requesterId)).thenReturn(requesterResponse);
 
@@ -98,14 +108,15 @@ class ItemRequestServiceImplTest {
                 .requester(requester)
                 .creationDate(LocalDateTime.now())
                 .build();
-        List<Item> items = new ArrayList<>();
+        Item item = Item.builder().id(5L).request(itemRequest).build();
+        List<Item> items = List.of(item);
         ItemRequestDtoWithItems expectedDtoWithItems = new ItemRequestDtoWithItems(itemRequestId, "Test Item Request", requesterId, itemRequest.getCreationDate(), new ArrayList<>());
 
         when(userService.get(requesterId)).thenReturn(requesterResponse);
 
         when(itemRequestRepository.findById(itemRequestId)).thenReturn(Optional.of(itemRequest));
 
-        when(itemRepository.findByRequestRequesterId(requesterId)).thenReturn(items);
+        when(itemRepository.findAllByRequestIdIn(List.of(itemRequestId))).thenReturn(items);
 
         when(mapper.toItemRequestDtoWithItems(itemRequest, items)).thenReturn(expectedDtoWithItems);
 
@@ -119,7 +130,7 @@ class ItemRequestServiceImplTest {
 
         verify(userService, times(1)).get(requesterId);
         verify(itemRequestRepository, times(1)).findById(itemRequestId);
-        verify(itemRepository, times(1)).findByRequestRequesterId(requesterId);
+        verify(itemRepository, times(1)).findAllByRequestIdIn(List.of(itemRequestId));
         verify(mapper, times(1)).toItemRequestDtoWithItems(itemRequest, items);
     }
 
@@ -148,8 +159,11 @@ class ItemRequestServiceImplTest {
                 .creationDate(LocalDateTime.now())
                 .build();
         List<ItemRequest> itemRequests = List.of(itemRequest1, itemRequest2);
-        List<Item> items1 = new ArrayList<>();
-        List<Item> items2 = new ArrayList<>();
+        Item item1 = Item.builder().id(11L).request(itemRequest1).build();
+        Item item2 = Item.builder().id(12L).request(itemRequest2).build();
+        Item item3 = Item.builder().id(13L).request(itemRequest1).build();
+        List<Item> items1 = List.of(item1, item3);
+        List<Item> items2 = List.of(item2);
         ItemRequestDtoWithItems itemRequestDtoWithItems1 = new ItemRequestDtoWithItems(1L, "Test Item Request 1", requesterId, itemRequest1.getCreationDate(), new ArrayList<>());
         ItemRequestDtoWithItems itemRequestDtoWithItems2 = new ItemRequestDtoWithItems(2L, "Test Item Request 2", requesterId2, itemRequest2.getCreationDate(), new ArrayList<>());
         List<ItemRequestDtoWithItems> expectedDtoWithItemsList = List.of(itemRequestDtoWithItems1, itemRequestDtoWithItems2);
@@ -158,7 +172,7 @@ class ItemRequestServiceImplTest {
 
         when(itemRequestRepository.findByRequesterId(requesterId, Sort.by(Sort.Direction.DESC, "creationDate"))).thenReturn(itemRequests);
 
-        when(itemRepository.findByRequestRequesterId(requesterId)).thenReturn(items1, items2);
+        when(itemRepository.findAllByRequestIdIn(List.of(1L, 2L))).thenReturn(List.of(item1, item2, item3));
 
         when(mapper.toItemRequestDtoWithItems(itemRequest1, items1)).thenReturn(itemRequestDtoWithItems1);
         when(mapper.toItemRequestDtoWithItems(itemRequest2, items2)).thenReturn(itemRequestDtoWithItems2);
@@ -172,9 +186,77 @@ class ItemRequestServiceImplTest {
 
         verify(userService, times(1)).get(requesterId);
         verify(itemRequestRepository, times(1)).findByRequesterId(requesterId, Sort.by(Sort.Direction.DESC, "creationDate"));
-        verify(itemRepository, times(1)).findByRequestRequesterId(requesterId); // Twice, once for each itemRequest
-        verify(itemRepository, times(1)).findByRequestRequesterId(requesterId2); // Twice, once for each itemRequest
+        verify(itemRepository, times(1)).findAllByRequestIdIn(List.of(1L, 2L));
+        verifyNoMoreInteractions(itemRepository);
         verify(mapper, times(1)).toItemRequestDtoWithItems(itemRequest1, items1);
         verify(mapper, times(1)).toItemRequestDtoWithItems(itemRequest2, items2);
     }
+
+    @Test
+    void testGetItemRequestsLoadsItemsForWholePage() {
+        User requester = User.builder().id(2L).build();
+        ItemRequest itemRequest1 = ItemRequest.builder().id(3L).requester(requester).build();
+        ItemRequest itemRequest2 = ItemRequest.builder().id(4L).requester(requester).build();
+        Item item = Item.builder().id(7L).request(itemRequest2).build();
+
+        when(itemRequestRepository.findByRequesterIdNot(eq(1L), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(itemRequest2, itemRequest1)));
+        when(itemRepository.findAllByRequestIdIn(List.of(4L, 3L))).thenReturn(List.of(item));
+
+        itemRequestService.getItemRequests(1L, 0, 10);
+
+        verify(itemRepository, times(1)).findAllByRequestIdIn(List.of(4L, 3L));
+        verify(mapper, times(1)).toItemRequestDtoWithItems(itemRequest2, List.of(item));
+        verify(mapper, times(1)).toItemRequestDtoWithItems(itemRequest1, List.of());
+        verifyNoMoreInteractions(itemRepository);
+    }
+
+    @Test
+    void testGetItemRequestsEmptyPageSkipsItemQuery() {
+        when(itemRequestRepository.findByRequesterIdNot(eq(1L), any(Pageable.class))).thenReturn(new SliceImpl<>(List.of()));
+
+        assertTrue(itemRequestService.getItemRequests(1L, 0, 10).isEmpty());
+
+        verifyNoInteractions(itemRepository);
+    }
+
+    @Test
+    void testGetItemRequestsServedFromFeed() {
+        List<ItemRequestDtoWithItems> feedPage = List.of(new ItemRequestDtoWithItems(5L, "Feed", 2L, LocalDateTime.now(), new ArrayList<>()));
+        when(itemRequestFeed.page(1L, Long.MAX_VALUE, 10, 10)).thenReturn(Optional.of(feedPage));
+
+        assertSame(feedPage, itemRequestService.getItemRequests(1L, 15, 10));
+
+        verifyNoInteractions(itemRequestRepository, itemRepository);
+    }
+
+    @Test
+    void testCreateItemRequestAddsToFeed() {
+        ItemRequestDto itemRequestDto = new ItemRequestDto();
+        ItemRequest itemRequest = ItemRequest.builder().description("Need a drill").build();
+        when(mapper.toItemRequest(itemRequestDto)).thenReturn(itemRequest);
+        when(itemRequestRepository.save(itemRequest)).thenReturn(itemRequest);
+        when(mapper.toItemRequestDto(itemRequest)).thenReturn(new ItemRequestDto());
+
+        itemRequestService.createItemRequest(1L, itemRequestDto);
+
+        verify(itemRequestFeed, times(1)).add(itemRequest);
+    }
+
+    @Test
+    void testCreateItemRequestReturnsMatchedItems() {
+        ItemRequestDto itemRequestDto = new ItemRequestDto();
+        ItemRequest itemRequest = ItemRequest.builder().description("Need a drill").build();
+        when(mapper.toItemRequest(itemRequestDto)).thenReturn(itemRequest);
+        when(itemRequestRepository.save(itemRequest)).thenReturn(itemRequest);
+        when(mapper.toItemRequestDto(itemRequest)).thenReturn(new ItemRequestDto());
+        when(itemSearchIndex.rank("Need a drill", 1L, 10)).thenReturn(List.of(5L, 3L));
+
+        ItemRequestDto result = itemRequestService.createItemRequest(1L, itemRequestDto);
+
+        assertEquals(List.of(5L, 3L), result.getMatchedItemIds());
+        InOrder inOrder = inOrder(itemRequestRepository, itemSearchIndex);
+        inOrder.verify(itemRequestRepository).save(itemRequest);
+        inOrder.verify(itemSearchIndex).rank("Need a drill", 1L, 10);
+    }
 }
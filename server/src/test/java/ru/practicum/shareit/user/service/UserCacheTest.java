@@ -0,0 +1,80 @@
+package ru.practicum.shareit.user.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new UserCache(16, userRepository, meterRegistry);
+    }
+
+    @Test
+    void testSecondLookupServedFromCache() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(new User(1L, "John", "john@example.com")));
+
+        User first = cache.find(1L).orElseThrow();
+        User second = cache.find(1L).orElseThrow();
+
+        assertEquals("John", second.getName());
+        assertEquals("john@example.com", second.getEmail());
+        assertNotSame(first, second);
+        verify(userRepository, times(1)).findById(1L);
+        assertEquals(1, cache.size());
+        assertEquals(1, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void testMissingUserIsNotCached() {
+        when(userRepository.findById(2L)).thenReturn(Optional.empty());
+
+        assertTrue(cache.find(2L).isEmpty());
+        assertTrue(cache.find(2L).isEmpty());
+
+        verify(userRepository, times(2)).findById(2L);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testEvictForcesReload() {
+        when(userRepository.findById(1L))
+                .thenReturn(Optional.of(new User(1L, "John", "john@example.com")))
+                .thenReturn(Optional.of(new User(1L, "Johnny", "john@example.com")));
+        cache.find(1L);
+
+        cache.evict(1L);
+
+        assertEquals("Johnny", cache.find(1L).orElseThrow().getName());
+        verify(userRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void testCapacityIsBounded() {
+        for (long id = 1; id <= 100; id++) {
+            when(userRepository.findById(id)).thenReturn(Optional.of(new User(id, "User " + id, id + "@example.com")));
+            cache.find(id);
+        }
+
+        assertTrue(cache.size() <= 16);
+    }
+}
@@ -6,6 +6,9 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import ru.practicum.shareit.exception.DataNotFoundException;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.service.ItemDetailCache;
+import ru.practicum.shareit.request.service.ItemRequestFeed;
 import ru.practicum.shareit.user.controller.dto.UserRequest;
 import ru.practicum.shareit.user.controller.dto.UserResponse;
 import ru.practicum.shareit.user.mapper.UserMapper;
@@ -28,6 +31,18 @@ class UserServiceImplTest {
     @Mock
     private UserMapper mapper;
 
+    @Mock
+    private ItemDetailCache itemDetailCache;
+
+    @Mock
+    private ItemRequestFeed itemRequestFeed;
+
+    @Mock
+    private UserCache userCache;
+
+    @Mock
+    private CommentRepository commentRepository;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -69,6 +84,7 @@ class UserServiceImplTest {
         when(repository.findById(userId)).thenReturn(Optional.of(existingUser));
         when(repository.save(any(User.class))).thenReturn(modifiedUser);
         when(mapper.toUserResponse(any(User.class))).thenReturn(expectedResponse);
+        when(commentRepository.findItemIdsByAuthorId(userId)).thenReturn(List.of(5L, 6L));
 
         UserResponse response = userService.update(userId, request);
 
@@ -80,6 +96,10 @@ class UserServiceImplTest {
         verify(repository, times(1)).findById(userId);
         verify(repository, times(1)).save(any(User.class));
         verify(mapper, times(1)).toUserResponse(any(User.class));
+        verify(userCache, times(1)).evict(userId);
+        verify(itemDetailCache).invalidateOwner(userId);
+        verify(itemDetailCache).invalidate(5L);
+        verify(itemDetailCache).invalidate(6L);
     }
 
     @Test
@@ -131,6 +151,8 @@ class UserServiceImplTest {
 
         verify(repository, times(1)).findById(userId);
         verify(repository, times(1)).deleteById(userId);
+        verify(itemRequestFeed, times(1)).removeRequester(userId);
+        verify(userCache, times(1)).evict(userId);
     }
 
     @Test
@@ -176,7 +198,7 @@ class UserServiceImplTest {
         User user = User.builder().id(userId).name("John Doe").email("john.doe@example.com").build();
         UserResponse userResponse = new UserResponse(userId, "John Doe", "john.doe@example.com");
 
-        when(repository.findById(userId)).thenReturn(Optional.of(user));
+        when(userCache.find(userId)).thenReturn(Optional.of(user));
         when(mapper.toUserResponse(user)).thenReturn(userResponse);
 
         UserResponse response = userService.get(userId);
@@ -186,7 +208,7 @@ class UserServiceImplTest {
         assertEquals(userResponse.getName(), response.getName());
         assertEquals(userResponse.getEmail(), response.getEmail());
 
-        verify(repository, times(1)).findById(userId);
+        verify(userCache, times(1)).find(userId);
         verify(mapper, times(1)).toUserResponse(user);
     }
 
@@ -194,11 +216,11 @@ class UserServiceImplTest {
     void testGetUserByIdNotFound() {
         Long userId = 1L;
 
-        when(repository.findById(userId)).thenReturn(Optional.empty());
+        when(userCache.find(userId)).thenReturn(Optional.empty());
 
         assertThrows(DataNotFoundException.class, () -> userService.get(userId));
 
-        verify(repository, times(1)).findById(userId);
+        verify(userCache, times(1)).find(userId);
         verify(mapper, never()).toUserResponse(any(User.class));
     }
 }
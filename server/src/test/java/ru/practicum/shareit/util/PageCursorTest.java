@@ -0,0 +1,47 @@
+package ru.practicum.shareit.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.exception.NotCorrectRequestException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageCursorTest {
+
+    @Test
+    void testEncodeDecodeId() {
+        PageCursor cursor = PageCursor.decode(PageCursor.of(42L).encode());
+
+        assertEquals(42L, cursor.getId());
+        assertNull(cursor.getStart());
+    }
+
+    @Test
+    void testEncodeDecodeStartAndId() {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 2, 3, 4, 5, 6000);
+        PageCursor cursor = PageCursor.decode(PageCursor.of(start, 7L).encode());
+
+        assertEquals(start, cursor.getStart());
+        assertEquals(7L, cursor.getId());
+        assertSame(cursor, cursor.requireStart());
+    }
+
+    @Test
+    void testDecodeInvalid() {
+        assertThrows(NotCorrectRequestException.class, () -> PageCursor.decode("not a cursor"));
+        assertThrows(NotCorrectRequestException.class, () -> PageCursor.decode(PageCursor.of(1L).encode()).requireStart());
+    }
+
+    @Test
+    void testWithNextCursor() {
+        ResponseEntity<List<Long>> full = PageCursor.withNextCursor(List.of(1L, 2L), 2, PageCursor::of);
+        ResponseEntity<List<Long>> partial = PageCursor.withNextCursor(List.of(1L), 2, PageCursor::of);
+
+        assertEquals(PageCursor.of(2L).encode(), full.getHeaders().getFirst(PageCursor.NEXT_CURSOR_HEADER));
+        assertFalse(partial.getHeaders().containsKey(PageCursor.NEXT_CURSOR_HEADER));
+        assertEquals(List.of(1L), partial.getBody());
+    }
+}